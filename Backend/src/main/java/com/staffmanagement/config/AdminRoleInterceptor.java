@@ -0,0 +1,36 @@
+package com.staffmanagement.config;
+
+import com.staffmanagement.service.SessionStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Requires the ADMIN role for the paths WebConfig registers it on. Runs after
+ * SessionInterceptor, which has already resolved the session or rejected the
+ * request.
+ */
+@Component
+public class AdminRoleInterceptor implements HandlerInterceptor {
+
+    @Value("${auth.session.required:false}")
+    private boolean required;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!required || "OPTIONS".equals(request.getMethod())) {
+            return true;
+        }
+        Object session = request.getAttribute(SessionInterceptor.SESSION_ATTRIBUTE);
+        if (!(session instanceof SessionStore.Session) || !((SessionStore.Session) session).isAdmin()) {
+            SessionInterceptor.reject(response, HttpStatus.FORBIDDEN, "Admin role required");
+            return false;
+        }
+        return true;
+    }
+}
@@ -5,6 +5,10 @@ import com.staffmanagement.model.Salary;
 import com.staffmanagement.repository.AttendanceRepository;
 import com.staffmanagement.repository.UserRepository;
 import com.staffmanagement.repository.SalaryRepository;
+import com.staffmanagement.service.AttendanceArchiveService;
+import com.staffmanagement.service.AttendanceCounterService;
+import com.staffmanagement.service.SalaryAggregateService;
+import com.staffmanagement.service.SalaryStructureService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -23,6 +27,18 @@ public class DataInitializer implements CommandLineRunner {
     
     @Autowired
     private SalaryRepository salaryRepository;
+    
+    @Autowired
+    private AttendanceCounterService attendanceCounterService;
+    
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+    
+    @Autowired
+    private SalaryStructureService salaryStructureService;
+    
+    @Autowired
+    private SalaryAggregateService salaryAggregateService;
 
     @Override
     public void run(String... args) throws Exception {
@@ -34,8 +50,12 @@ public class DataInitializer implements CommandLineRunner {
         // Create users
         createSampleUsers();
         
+        // Salary structures per designation
+        salaryStructureService.seedDefaults();
+        
         // Create sample salaries
         createSampleSalaries();
+        salaryAggregateService.rebuildAll();
         
         System.out.println("Data initialization completed successfully!");
     }
@@ -43,6 +63,9 @@ public class DataInitializer implements CommandLineRunner {
     private void clearExistingData() {
         try {
             // Clear in correct order to avoid foreign key constraints
+            attendanceCounterService.deleteAll();
+            attendanceArchiveService.deleteAll();
+            salaryAggregateService.deleteAll();
             attendanceRepository.deleteAll();
             salaryRepository.deleteAll();
             userRepository.deleteAll();
@@ -129,6 +152,7 @@ public class DataInitializer implements CommandLineRunner {
         if (!salaryRepository.existsByUsernameAndSalaryMonth("staff", lastMonth)) {
             Salary staffSalary = new Salary();
             staffSalary.setUsername("staff");
+            staffSalary.setDepartment("HR");
             staffSalary.setSalaryMonth(lastMonth);
             staffSalary.setBasicSalary(new BigDecimal("45000.00"));
             staffSalary.setHouseRentAllowance(new BigDecimal("18000.00"));
@@ -155,6 +179,7 @@ public class DataInitializer implements CommandLineRunner {
         if (!salaryRepository.existsByUsernameAndSalaryMonth("alice.smith", lastMonth)) {
             Salary aliceSalary = new Salary();
             aliceSalary.setUsername("alice.smith");
+            aliceSalary.setDepartment("IT");
             aliceSalary.setSalaryMonth(lastMonth);
             aliceSalary.setBasicSalary(new BigDecimal("50000.00"));
             aliceSalary.setHouseRentAllowance(new BigDecimal("20000.00"));
@@ -0,0 +1,63 @@
+package com.staffmanagement.config;
+
+import com.staffmanagement.service.SessionStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Resolves the "Authorization: Bearer" token of each API request against
+ * the in-memory session store and exposes the session as a request
+ * attribute. With auth.session.required the API answers 401 without a valid
+ * session. WebConfig leaves /api/auth out and checks the ADMIN role of
+ * /api/admin with AdminRoleInterceptor; both are matched on the normalized
+ * lookup path, not the raw request URI.
+ */
+@Component
+public class SessionInterceptor implements HandlerInterceptor {
+
+    public static final String SESSION_ATTRIBUTE = "staffmanagement.session";
+
+    private static final String BEARER = "Bearer ";
+
+    @Autowired
+    private SessionStore sessionStore;
+
+    // Off by default so clients that still send usernames keep working
+    @Value("${auth.session.required:false}")
+    private boolean required;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if ("OPTIONS".equals(request.getMethod())) {
+            return true;
+        }
+        Optional<SessionStore.Session> session = sessionStore.resolve(bearerToken(request));
+        session.ifPresent(s -> request.setAttribute(SESSION_ATTRIBUTE, s));
+        if (required && session.isEmpty()) {
+            reject(response, HttpStatus.UNAUTHORIZED, "Login required");
+            return false;
+        }
+        return true;
+    }
+
+    public static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.startsWith(BEARER) ? header.substring(BEARER.length()).trim() : null;
+    }
+
+    static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"message\":\"" + message + "\"}");
+    }
+}
@@ -1,13 +1,21 @@
 package com.staffmanagement.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private SessionInterceptor sessionInterceptor;
+
+    @Autowired
+    private AdminRoleInterceptor adminRoleInterceptor;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -16,4 +24,11 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Patterns match the normalized lookup path, so path parameters or a context path cannot bypass them
+        registry.addInterceptor(sessionInterceptor).addPathPatterns("/api/**").excludePathPatterns("/api/auth/**");
+        registry.addInterceptor(adminRoleInterceptor).addPathPatterns("/api/admin/**");
+    }
 }
\ No newline at end of file
@@ -1,12 +1,31 @@
 package com.staffmanagement.controller;
 
+import com.staffmanagement.model.AttendanceChangedEvent;
+import com.staffmanagement.model.BulkUserUpdateRequest;
+import com.staffmanagement.model.SalaryChangedEvent;
+import com.staffmanagement.model.SalaryStructure;
+import com.staffmanagement.model.UserChangedEvent;
 import com.staffmanagement.repository.AttendanceRepository;
 import com.staffmanagement.repository.SalaryRepository;
 import com.staffmanagement.repository.UserRepository;
+import com.staffmanagement.service.AttendanceArchiveService;
+import com.staffmanagement.service.AttendanceCounterService;
+import com.staffmanagement.service.AttendanceEventLog;
+import com.staffmanagement.service.SalaryAggregateService;
+import com.staffmanagement.service.SalaryStructureService;
+import com.staffmanagement.service.SalaryTemplates;
+import com.staffmanagement.service.SessionStore;
+import com.staffmanagement.service.UserAvailabilityService;
+import com.staffmanagement.service.UserCache;
+import com.staffmanagement.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,10 +43,44 @@ public class AdminController {
     @Autowired
     private SalaryRepository salaryRepository;
     
+    @Autowired
+    private AttendanceCounterService attendanceCounterService;
+    
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+    
+    @Autowired
+    private AttendanceEventLog attendanceEventLog;
+    
+    @Autowired
+    private SalaryStructureService salaryStructureService;
+    
+    @Autowired
+    private SalaryAggregateService salaryAggregateService;
+    
+    @Autowired
+    private SessionStore sessionStore;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserCache userCache;
+    
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @PostMapping("/reset-database")
     public ResponseEntity<?> resetDatabase() {
         try {
             // Clear data in correct order
+            attendanceCounterService.deleteAll();
+            attendanceArchiveService.deleteAll();
+            attendanceEventLog.clear();
+            salaryAggregateService.deleteAll();
             attendanceRepository.deleteAll();
             salaryRepository.deleteAll();
             userRepository.deleteAll();
@@ -36,6 +89,10 @@ public class AdminController {
             userRepository.resetUserSequence();
             attendanceRepository.resetAttendanceSequence();
             salaryRepository.resetSalarySequence();
+            eventPublisher.publishEvent(AttendanceChangedEvent.allAttendance());
+            eventPublisher.publishEvent(SalaryChangedEvent.allSalaries());
+            eventPublisher.publishEvent(UserChangedEvent.allUsers());
+            sessionStore.clear();
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -50,6 +107,176 @@ public class AdminController {
         }
     }
     
+    // Recompute attendance statistics counters from the raw attendance table
+    @PostMapping("/attendance-counters/rebuild")
+    public ResponseEntity<?> rebuildAttendanceCounters() {
+        try {
+            attendanceCounterService.rebuildAll();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Attendance counters rebuilt successfully");
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Error rebuilding attendance counters: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    // Recompute payroll dashboard aggregates from the salaries table
+    @PostMapping("/salary-aggregates/rebuild")
+    public ResponseEntity<?> rebuildSalaryAggregates() {
+        try {
+            salaryAggregateService.rebuildAll();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Salary aggregates rebuilt successfully");
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Error rebuilding salary aggregates: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    // Pack a finished month's attendance into the compact archive encoding
+    @PostMapping("/attendance/close-month")
+    public ResponseEntity<?> closeAttendanceMonth(@RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        try {
+            AttendanceArchiveService.MonthCloseResult closeResult = attendanceArchiveService.closeMonth(month);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Attendance month " + month + " closed");
+            response.put("result", closeResult);
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Error closing attendance month: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    // Rebuild attendance rows and counters from the attendance event log
+    @PostMapping("/attendance-events/replay")
+    public ResponseEntity<?> replayAttendanceEvents() {
+        try {
+            AttendanceEventLog.ReplayResult replayResult = attendanceEventLog.replay();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Attendance rebuilt from the event log");
+            response.put("result", replayResult);
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Error replaying attendance events: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    // Audit trail: a page of logged events, optionally for one user and day; pass the last sequence as afterSequence
+    @GetMapping("/attendance-events")
+    public ResponseEntity<?> getAttendanceEvents(@RequestParam(required = false) String username,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                 @RequestParam(defaultValue = "0") long afterSequence,
+                                                 @RequestParam(defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok(attendanceEventLog.findEvents(username, date, afterSequence, limit));
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Error reading attendance events: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/salary-structures")
+    public ResponseEntity<?> getSalaryStructures() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("structures", salaryStructureService.getAllStructures());
+        return ResponseEntity.ok(response);
+    }
+    
+    // Add a structure for a designation from its effective date on; applies to new calculations immediately
+    @PostMapping("/salary-structures")
+    public ResponseEntity<?> createSalaryStructure(@RequestBody SalaryStructure structure) {
+        try {
+            SalaryStructure saved = salaryStructureService.saveStructure(structure);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Salary structure saved");
+            response.put("structure", saved);
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Error saving salary structure: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    // Recompile the salary templates after structures were changed directly in the database
+    @PostMapping("/salary-structures/reload")
+    public ResponseEntity<?> reloadSalaryStructures() {
+        try {
+            SalaryTemplates templates = salaryStructureService.reload();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Loaded " + templates.size() + " salary structures");
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Error reloading salary structures: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    // Move users to a department and/or role in one UPDATE each
+    @PutMapping("/users/bulk")
+    public ResponseEntity<?> bulkUpdateUsers(@RequestBody BulkUserUpdateRequest request) {
+        try {
+            int updated = userService.bulkUpdate(request.getUsernames(), request.getDepartment(), request.getRole());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("updated", updated);
+            response.put("message", updated + " users updated");
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Error updating users: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("users", userCache.getStats());
+        response.put("availability", userAvailabilityService.getStats());
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/database-status")
     public ResponseEntity<?> getDatabaseStatus() {
         try {
@@ -1,36 +1,75 @@
 package com.staffmanagement.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.staffmanagement.model.AttendanceActionResult;
 import com.staffmanagement.model.AttendanceRequest;
 import com.staffmanagement.model.AttendanceResponse;
+import com.staffmanagement.model.BulkAttendanceResult;
+import com.staffmanagement.service.AttendanceBulkService;
+import com.staffmanagement.service.AttendanceExportService;
+import com.staffmanagement.service.AttendanceRosterCache;
 import com.staffmanagement.service.AttendanceService;
+import com.staffmanagement.service.IdempotencyCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/attendance")
 @CrossOrigin(origins = "http://localhost:3000")
 public class AttendanceController {
     
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    
     @Autowired
     private AttendanceService attendanceService;
     
-    // Mark check-in
+    @Autowired
+    private AttendanceBulkService attendanceBulkService;
+    
+    @Autowired
+    private AttendanceExportService attendanceExportService;
+    
+    @Autowired
+    private AttendanceRosterCache attendanceRosterCache;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+    
+    // Mark check-in; a retry with the same Idempotency-Key gets the original result
     @PostMapping("/checkin/{username}")
-    public ResponseEntity<?> markCheckIn(@PathVariable String username) {
+    public ResponseEntity<?> markCheckIn(@PathVariable String username,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         try {
-            AttendanceResponse response = attendanceService.markCheckIn(username);
+            AttendanceActionResult action = idempotencyCache.execute("checkin|" + username, idempotencyKey,
+                    () -> attendanceService.markCheckIn(username));
             Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-            result.put("message", "Check-in recorded successfully at " + response.getCheckInTime());
-            result.put("attendance", response);
-            return ResponseEntity.ok(result);
+            result.put("success", action.isApplied());
+            result.put("message", action.isApplied()
+                    ? "Check-in recorded successfully at " + action.getAttendance().getCheckInTime()
+                    : action.getMessage());
+            result.put("attendance", action.getAttendance());
+            return action.isApplied() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
         } catch (Exception e) {
             Map<String, Object> result = new HashMap<>();
             result.put("success", false);
@@ -39,16 +78,20 @@ public class AttendanceController {
         }
     }
     
-    // Mark check-out
+    // Mark check-out; a retry with the same Idempotency-Key gets the original result
     @PostMapping("/checkout/{username}")
-    public ResponseEntity<?> markCheckOut(@PathVariable String username) {
+    public ResponseEntity<?> markCheckOut(@PathVariable String username,
+                                          @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         try {
-            AttendanceResponse response = attendanceService.markCheckOut(username);
+            AttendanceActionResult action = idempotencyCache.execute("checkout|" + username, idempotencyKey,
+                    () -> attendanceService.markCheckOut(username));
             Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-            result.put("message", "Check-out recorded successfully. Working hours: " + response.getWorkingHours() + " hrs");
-            result.put("attendance", response);
-            return ResponseEntity.ok(result);
+            result.put("success", action.isApplied());
+            result.put("message", action.isApplied()
+                    ? "Check-out recorded successfully. Working hours: " + action.getAttendance().getWorkingHours() + " hrs"
+                    : action.getMessage());
+            result.put("attendance", action.getAttendance());
+            return action.isApplied() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
         } catch (Exception e) {
             Map<String, Object> result = new HashMap<>();
             result.put("success", false);
@@ -75,6 +118,28 @@ public class AttendanceController {
         }
     }
     
+    // Bulk ingest punches as a JSON array or NDJSON (application/x-ndjson)
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> ingestBulkAttendance(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                  InputStream body) {
+        try {
+            BulkAttendanceResult bulkResult = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                    ? attendanceBulkService.ingestNdjson(body)
+                    : attendanceBulkService.ingestJsonArray(body);
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", bulkResult.getFailed() == 0);
+            result.put("message", "Processed " + bulkResult.getTotal() + " punches: " + bulkResult.getInserted() +
+                    " inserted, " + bulkResult.getUpdated() + " updated, " + bulkResult.getFailed() + " failed");
+            result.put("result", bulkResult);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Error ingesting attendance: " + e.getMessage());
+            return ResponseEntity.badRequest().body(result);
+        }
+    }
+    
     // Get user's attendance history
     @GetMapping("/user/{username}")
     public ResponseEntity<?> getUserAttendance(@PathVariable String username) {
@@ -92,6 +157,80 @@ public class AttendanceController {
         }
     }
     
+    // Get one page of user's attendance history (keyset on attendance date, newest first)
+    @GetMapping("/user/{username}/page")
+    public ResponseEntity<?> getUserAttendancePage(
+            @PathVariable String username,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            AttendanceService.AttendancePage page = attendanceService.getUserAttendancePage(username, before, size);
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("attendances", page.getAttendances());
+            result.put("nextCursor", page.getNextCursor());
+            result.put("hasMore", page.isHasMore());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(result);
+        }
+    }
+    
+    // Stream user's full attendance history as NDJSON, newest first
+    @GetMapping(value = "/user/{username}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserAttendance(@PathVariable String username) {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+                attendanceService.streamUserAttendance(username, response -> {
+                    try {
+                        writer.write(response);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    // Export every record in a date range as CSV or NDJSON, optionally gzip-compressed
+    @GetMapping("/export")
+    public ResponseEntity<?> exportAttendance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = AttendanceExportService.CSV) String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        try {
+            attendanceExportService.validate(from, to, format);
+        } catch (Exception e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(result);
+        }
+        
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 1 << 16)) {
+                    attendanceExportService.export(from, to, format, compressed);
+                }
+            } else {
+                attendanceExportService.export(from, to, format, out);
+            }
+        };
+        String filename = "attendance-" + from + "-to-" + to + "." + format;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(AttendanceExportService.CSV.equals(format) ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
     // Get user's monthly attendance
     @GetMapping("/user/{username}/monthly")
     public ResponseEntity<?> getMonthlyAttendance(
@@ -129,15 +268,40 @@ public class AttendanceController {
         }
     }
     
-    // Get all attendance for a specific date (Admin only)
+    // Get all attendance for a specific date (Admin only); served from the roster cache with an ETag
     @GetMapping("/date/{date}")
     public ResponseEntity<?> getAttendanceByDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            AttendanceRosterCache.Roster roster = attendanceRosterCache.get(date);
+            if (roster.getEtag().equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(roster.getEtag()).build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(roster.getEtag())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(roster.getBody());
+        } catch (Exception e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(result);
+        }
+    }
+    
+    // Get attendance statistics for user for a single month
+    @GetMapping("/stats/{username}/monthly")
+    public ResponseEntity<?> getMonthlyAttendanceStats(
+            @PathVariable String username,
+            @RequestParam int year,
+            @RequestParam int month) {
         try {
-            List<AttendanceResponse> attendances = attendanceService.getAllAttendanceByDate(date);
+            AttendanceService.AttendanceStats stats = attendanceService.getMonthlyAttendanceStats(username, year, month);
+            
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
-            result.put("attendances", attendances);
+            result.put("stats", stats);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             Map<String, Object> result = new HashMap<>();
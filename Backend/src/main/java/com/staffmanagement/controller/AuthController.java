@@ -1,8 +1,14 @@
 package com.staffmanagement.controller;
 
+import com.staffmanagement.config.SessionInterceptor;
 import com.staffmanagement.model.User;
+import com.staffmanagement.model.UserChangedEvent;
 import com.staffmanagement.repository.UserRepository;
+import com.staffmanagement.service.SessionStore;
+import com.staffmanagement.service.UserAvailabilityService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +24,15 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private SessionStore sessionStore;
+    
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     // Login endpoint
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody User loginRequest) {
@@ -28,10 +43,13 @@ public class AuthController {
             );
             
             if (user.isPresent()) {
+                SessionStore.Session session = sessionStore.create(user.get());
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
                 response.put("message", "Login successful");
                 response.put("user", user.get());
+                response.put("token", session.getToken());
+                response.put("expiresAt", session.getExpiresAt());
                 return ResponseEntity.ok(response);
             } else {
                 Map<String, Object> response = new HashMap<>();
@@ -47,12 +65,40 @@ public class AuthController {
         }
     }
     
+    // Ends the session of the bearer token
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        boolean loggedOut = sessionStore.invalidate(SessionInterceptor.bearerToken(request));
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", loggedOut);
+        response.put("message", loggedOut ? "Logout successful" : "No active session");
+        return ResponseEntity.ok(response);
+    }
+    
+    // Who the bearer token belongs to, answered from the session store
+    @GetMapping("/session")
+    public ResponseEntity<?> getSession(HttpServletRequest request) {
+        Optional<SessionStore.Session> session = sessionStore.resolve(SessionInterceptor.bearerToken(request));
+        Map<String, Object> response = new HashMap<>();
+        if (session.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "No active session");
+            return ResponseEntity.status(401).body(response);
+        }
+        response.put("success", true);
+        response.put("username", session.get().getUsername());
+        response.put("role", session.get().getRole());
+        response.put("name", session.get().getName());
+        response.put("expiresAt", session.get().getExpiresAt());
+        return ResponseEntity.ok(response);
+    }
+    
     // Register endpoint
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
         try {
             // Check if username already exists
-            if (userRepository.existsByUsername(user.getUsername())) {
+            if (userAvailabilityService.isUsernameTaken(user.getUsername())) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
                 response.put("message", "Username already exists");
@@ -64,7 +110,9 @@ public class AuthController {
                 user.setRole("STAFF");
             }
             
+            userAvailabilityService.record(user.getUsername(), user.getEmail());
             User savedUser = userRepository.save(user);
+            eventPublisher.publishEvent(UserChangedEvent.of(savedUser.getUsername()));
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -83,7 +131,16 @@ public class AuthController {
     // Check username availability
     @GetMapping("/check-username/{username}")
     public ResponseEntity<?> checkUsername(@PathVariable String username) {
-        boolean exists = userRepository.existsByUsername(username);
+        boolean exists = userAvailabilityService.isUsernameTaken(username);
+        Map<String, Object> response = new HashMap<>();
+        response.put("exists", exists);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Check email availability
+    @GetMapping("/check-email/{email}")
+    public ResponseEntity<?> checkEmail(@PathVariable String email) {
+        boolean exists = userAvailabilityService.isEmailTaken(email);
         Map<String, Object> response = new HashMap<>();
         response.put("exists", exists);
         return ResponseEntity.ok(response);
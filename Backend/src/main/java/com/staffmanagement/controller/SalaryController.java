@@ -1,26 +1,52 @@
 package com.staffmanagement.controller;
 
+import com.staffmanagement.model.BulkSalaryStatusRequest;
+import com.staffmanagement.model.BulkSalaryStatusResult;
+import com.staffmanagement.model.PayrollRun;
+import com.staffmanagement.model.PayrollSimulationRequest;
 import com.staffmanagement.model.SalaryRequest;
 import com.staffmanagement.model.SalaryResponse;
+import com.staffmanagement.service.PayrollRunService;
+import com.staffmanagement.service.PayrollSimulationService;
+import com.staffmanagement.service.PayslipService;
+import com.staffmanagement.service.SalaryAggregateService;
 import com.staffmanagement.service.SalaryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/salaries")
 @CrossOrigin(origins = "http://localhost:5000")
 public class SalaryController {
     
+    private static final MediaType APPLICATION_ZIP = new MediaType("application", "zip");
+    
     @Autowired
     private SalaryService salaryService;
     
+    @Autowired
+    private PayrollRunService payrollRunService;
+    
+    @Autowired
+    private SalaryAggregateService salaryAggregateService;
+    
+    @Autowired
+    private PayslipService payslipService;
+    
+    @Autowired
+    private PayrollSimulationService payrollSimulationService;
+    
     @PostMapping("/calculate")
     public ResponseEntity<?> calculateSalary(@RequestBody SalaryRequest request) {
         try {
@@ -38,6 +64,103 @@ public class SalaryController {
         }
     }
     
+    // Start calculating every active user's salary for the month in the background
+    @PostMapping("/payroll-runs")
+    public ResponseEntity<?> startPayrollRun(@RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+                                             @RequestParam(defaultValue = "false") boolean overtimeFromAttendance) {
+        try {
+            PayrollRun run = payrollRunService.start(month, overtimeFromAttendance);
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("run", run);
+            result.put("message", "Payroll run started for " + month);
+            return ResponseEntity.accepted().body(result);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/payroll-runs")
+    public ResponseEntity<?> getPayrollRuns() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("runs", payrollRunService.getRuns());
+        return ResponseEntity.ok(result);
+    }
+    
+    @GetMapping("/payroll-runs/{runId}")
+    public ResponseEntity<?> getPayrollRun(@PathVariable String runId) {
+        Optional<PayrollRun> run = payrollRunService.getRun(runId);
+        Map<String, Object> result = new HashMap<>();
+        if (run.isEmpty()) {
+            result.put("success", false);
+            result.put("message", "Payroll run not found: " + runId);
+            return ResponseEntity.badRequest().body(result);
+        }
+        result.put("success", true);
+        result.put("run", run.get());
+        return ResponseEntity.ok(result);
+    }
+    
+    // Recalculate a month's payroll under changed rules; nothing is saved
+    @PostMapping("/simulations")
+    public ResponseEntity<?> simulatePayroll(@RequestBody PayrollSimulationRequest request) {
+        try {
+            PayrollSimulationService.SimulationResult simulation = payrollSimulationService.simulate(request);
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("simulation", simulation);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    // Every payslip of the month as a zip, streamed while it is rendered
+    @GetMapping("/payslips")
+    public ResponseEntity<?> downloadPayslips(@RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+                                              @RequestParam(defaultValue = PayslipService.HTML) String format) {
+        try {
+            payslipService.validate(month, format);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        StreamingResponseBody body = out -> payslipService.writeZip(month, format, out);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payslips-" + month + ".zip\"")
+                .body(body);
+    }
+    
+    // Write the month's payslip zip to the server's payslip directory
+    @PostMapping("/payslips/archive")
+    public ResponseEntity<?> archivePayslips(@RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+                                             @RequestParam(defaultValue = PayslipService.HTML) String format) {
+        try {
+            PayslipService.ArchiveResult archive = payslipService.writeZipFile(month, format);
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("archive", archive);
+            result.put("message", archive.getPayslips() + " payslips written");
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<?> getSalary(@PathVariable Long id) {
         try {
@@ -125,6 +248,24 @@ public class SalaryController {
         }
     }
     
+    // e.g. all PENDING salaries of a month (and department) -> PAID, as chunked set-based updates
+    @PostMapping("/status/bulk")
+    public ResponseEntity<?> bulkUpdateSalaryStatus(@RequestBody BulkSalaryStatusRequest request) {
+        try {
+            BulkSalaryStatusResult bulkResult = salaryService.bulkUpdateStatus(request);
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("result", bulkResult);
+            result.put("message", bulkResult.getUpdated() + " salaries updated to " + bulkResult.getToStatus());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
     @GetMapping("/user/{username}/latest")
     public ResponseEntity<?> getLatestSalary(@PathVariable String username) {
         try {
@@ -141,14 +282,16 @@ public class SalaryController {
         }
     }
     
+    // Month totals and per-department totals from the incrementally maintained aggregates
     @GetMapping("/dashboard/stats")
-    public ResponseEntity<?> getSalaryStats() {
+    public ResponseEntity<?> getSalaryStats(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
         try {
-            YearMonth currentMonth = YearMonth.now();
-            // You can implement more comprehensive stats here
+            YearMonth currentMonth = month != null ? month : YearMonth.now();
+            SalaryAggregateService.MonthSummary summary = salaryAggregateService.getMonthSummary(currentMonth);
             Map<String, Object> stats = new HashMap<>();
             stats.put("currentMonth", currentMonth.toString());
-            // Add more statistics as needed
+            stats.put("summary", summary.getTotal());
+            stats.put("departments", summary.getDepartments());
             
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
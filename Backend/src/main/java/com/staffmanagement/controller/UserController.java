@@ -2,7 +2,9 @@ package com.staffmanagement.controller;
 
 import com.staffmanagement.model.ProfileUpdateRequest;
 import com.staffmanagement.model.User;
+import com.staffmanagement.service.UserSearchIndex;
 import com.staffmanagement.service.UserService;
+import com.staffmanagement.service.UserSuggestIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +21,12 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    @Autowired
+    private UserSuggestIndex userSuggestIndex;
+    
     // Get user profile
     @GetMapping("/profile/{username}")
     public ResponseEntity<?> getUserProfile(@PathVariable String username) {
@@ -44,6 +52,44 @@ public class UserController {
         }
     }
     
+    // Substring search over name, username, email, department and designation, answered from memory
+    @GetMapping("/search")
+    public ResponseEntity<?> searchUsers(@RequestParam(required = false) String q,
+                                         @RequestParam(required = false) String department,
+                                         @RequestParam(required = false) String role,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size) {
+        try {
+            UserSearchIndex.SearchPage results = userSearchIndex.search(q, department, role, page, size);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("results", results);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error searching users: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    // Type-ahead for employee pickers: users whose username or a word of their name starts with q
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestUsers(@RequestParam String q,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("suggestions", userSuggestIndex.suggest(q, limit));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error suggesting users: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
     // Update user profile
     @PutMapping("/profile/{username}")
     public ResponseEntity<?> updateUserProfile(@PathVariable String username, 
@@ -6,6 +6,7 @@ import java.time.LocalTime;
 import java.util.Objects;
 
 @Entity
+// The unique (username, attendance_date) index also serves per-user date-range lookups as range scans
 @Table(name = "attendance", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"username", "attendance_date"})
 })
@@ -0,0 +1,31 @@
+package com.staffmanagement.model;
+
+/**
+ * Outcome of a check-in or check-out. A rejected action (already checked in,
+ * not checked in yet) is a normal result rather than an exception; the
+ * attendance is the current record when there is one.
+ */
+public class AttendanceActionResult {
+    private boolean applied;
+    private String message;
+    private AttendanceResponse attendance;
+
+    public AttendanceActionResult(boolean applied, String message, AttendanceResponse attendance) {
+        this.applied = applied;
+        this.message = message;
+        this.attendance = attendance;
+    }
+
+    public static AttendanceActionResult applied(AttendanceResponse attendance) {
+        return new AttendanceActionResult(true, null, attendance);
+    }
+
+    public static AttendanceActionResult rejected(String message, AttendanceResponse attendance) {
+        return new AttendanceActionResult(false, message, attendance);
+    }
+
+    // Getters
+    public boolean isApplied() { return applied; }
+    public String getMessage() { return message; }
+    public AttendanceResponse getAttendance() { return attendance; }
+}
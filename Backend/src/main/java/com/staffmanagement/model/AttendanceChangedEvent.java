@@ -0,0 +1,40 @@
+package com.staffmanagement.model;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published whenever attendance rows are written, so caches derived from
+ * them can be refreshed. Listeners receive it after the write commits. An
+ * event for all users and dates is used for resets and rebuilds.
+ */
+public class AttendanceChangedEvent {
+    private final Set<String> usernames;
+    private final Set<LocalDate> dates;
+    private final boolean all;
+
+    private AttendanceChangedEvent(Set<String> usernames, Set<LocalDate> dates, boolean all) {
+        this.usernames = usernames;
+        this.dates = dates;
+        this.all = all;
+    }
+
+    public static AttendanceChangedEvent of(String username, LocalDate date) {
+        return new AttendanceChangedEvent(Set.of(username), Set.of(date), false);
+    }
+
+    // Rows were written for some of these users on some of these dates
+    public static AttendanceChangedEvent of(Collection<String> usernames, Collection<LocalDate> dates) {
+        return new AttendanceChangedEvent(Set.copyOf(usernames), Set.copyOf(dates), false);
+    }
+
+    public static AttendanceChangedEvent allAttendance() {
+        return new AttendanceChangedEvent(Set.of(), Set.of(), true);
+    }
+
+    // Getters
+    public Set<String> getUsernames() { return usernames; }
+    public Set<LocalDate> getDates() { return dates; }
+    public boolean isAll() { return all; }
+}
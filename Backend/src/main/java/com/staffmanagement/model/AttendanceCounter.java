@@ -0,0 +1,95 @@
+package com.staffmanagement.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Running attendance totals for one user, either over all time
+ * (period {@value #ALL_TIME}) or for a single month (period "yyyy-MM").
+ * Maintained incrementally by every attendance write.
+ */
+@Entity
+@Table(name = "attendance_counters")
+@IdClass(AttendanceCounter.Key.class)
+public class AttendanceCounter {
+    public static final String ALL_TIME = "ALL";
+    
+    @Id
+    @Column(name = "username", nullable = false)
+    private String username;
+    
+    @Id
+    @Column(name = "period", nullable = false, length = 7)
+    private String period;
+    
+    @Column(name = "total_days", nullable = false)
+    private long totalDays;
+    
+    @Column(name = "present_days", nullable = false)
+    private long presentDays;
+    
+    @Column(name = "absent_days", nullable = false)
+    private long absentDays;
+    
+    @Column(name = "half_days", nullable = false)
+    private long halfDays;
+    
+    @Column(name = "leave_days", nullable = false)
+    private long leaveDays;
+    
+    // Constructors
+    public AttendanceCounter() {}
+    
+    // Getters and Setters
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+    
+    public long getTotalDays() { return totalDays; }
+    public void setTotalDays(long totalDays) { this.totalDays = totalDays; }
+    
+    public long getPresentDays() { return presentDays; }
+    public void setPresentDays(long presentDays) { this.presentDays = presentDays; }
+    
+    public long getAbsentDays() { return absentDays; }
+    public void setAbsentDays(long absentDays) { this.absentDays = absentDays; }
+    
+    public long getHalfDays() { return halfDays; }
+    public void setHalfDays(long halfDays) { this.halfDays = halfDays; }
+    
+    public long getLeaveDays() { return leaveDays; }
+    public void setLeaveDays(long leaveDays) { this.leaveDays = leaveDays; }
+    
+    // Composite primary key
+    public static class Key implements Serializable {
+        private String username;
+        private String period;
+        
+        public Key() {}
+        
+        public Key(String username, String period) {
+            this.username = username;
+            this.period = period;
+        }
+        
+        public String getUsername() { return username; }
+        public String getPeriod() { return period; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(username, key.username) && Objects.equals(period, key.period);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, period);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.staffmanagement.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One entry in the append-only attendance event log. An event carries only
+ * the fields it sets; applying the events for a (username, date) in sequence
+ * order reproduces the attendance row. The event that inserted the row is
+ * flagged as created, so the log can tell which rows it holds the full
+ * history of.
+ */
+public class AttendanceEvent {
+    public static final String CHECK_IN = "CHECK_IN";
+    public static final String CHECK_OUT = "CHECK_OUT";
+    public static final String MANUAL_OVERRIDE = "MANUAL_OVERRIDE";
+
+    private long sequence;
+    private Instant recordedAt;
+    private String type;
+    private String username;
+    private LocalDate attendanceDate;
+    private LocalTime checkInTime;
+    private LocalTime checkOutTime;
+    private String status;
+    private String notes;
+    private boolean created;
+
+    // Constructors
+    public AttendanceEvent() {}
+
+    public AttendanceEvent(String type, String username, LocalDate attendanceDate) {
+        this.type = type;
+        this.username = username;
+        this.attendanceDate = attendanceDate;
+    }
+
+    // Getters and Setters
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+
+    public Instant getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(Instant recordedAt) { this.recordedAt = recordedAt; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public LocalDate getAttendanceDate() { return attendanceDate; }
+    public void setAttendanceDate(LocalDate attendanceDate) { this.attendanceDate = attendanceDate; }
+
+    public LocalTime getCheckInTime() { return checkInTime; }
+    public void setCheckInTime(LocalTime checkInTime) { this.checkInTime = checkInTime; }
+
+    public LocalTime getCheckOutTime() { return checkOutTime; }
+    public void setCheckOutTime(LocalTime checkOutTime) { this.checkOutTime = checkOutTime; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+
+    public boolean isCreated() { return created; }
+    public void setCreated(boolean created) { this.created = created; }
+}
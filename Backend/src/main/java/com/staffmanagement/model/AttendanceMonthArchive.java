@@ -0,0 +1,96 @@
+package com.staffmanagement.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Packed attendance for one user and one closed month. Each day of the month
+ * occupies a fixed slot in the bit-packed columns; see AttendanceMonthCodec
+ * for the layout. Replaces the month's rows in the attendance table.
+ */
+@Entity
+@Table(name = "attendance_month_archive")
+@IdClass(AttendanceMonthArchive.Key.class)
+public class AttendanceMonthArchive {
+    // Length of the notes column; months whose packed notes are longer are not archived
+    public static final int NOTES_LENGTH = 4000;
+
+    @Id
+    @Column(name = "username", nullable = false)
+    private String username;
+    
+    @Id
+    @Column(name = "attendance_month", nullable = false, length = 7)
+    private String month; // yyyy-MM
+    
+    @Column(name = "status_codes", nullable = false, length = 12)
+    private byte[] statusCodes;
+    
+    @Column(name = "check_in_minutes", nullable = false, length = 43)
+    private byte[] checkInMinutes;
+    
+    @Column(name = "check_out_minutes", nullable = false, length = 43)
+    private byte[] checkOutMinutes;
+    
+    @Column(name = "working_hours", nullable = false, length = 47)
+    private byte[] workingHours;
+    
+    @Column(name = "notes", length = NOTES_LENGTH)
+    private String notes;
+    
+    // Constructors
+    public AttendanceMonthArchive() {}
+    
+    // Getters and Setters
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+    
+    public byte[] getStatusCodes() { return statusCodes; }
+    public void setStatusCodes(byte[] statusCodes) { this.statusCodes = statusCodes; }
+    
+    public byte[] getCheckInMinutes() { return checkInMinutes; }
+    public void setCheckInMinutes(byte[] checkInMinutes) { this.checkInMinutes = checkInMinutes; }
+    
+    public byte[] getCheckOutMinutes() { return checkOutMinutes; }
+    public void setCheckOutMinutes(byte[] checkOutMinutes) { this.checkOutMinutes = checkOutMinutes; }
+    
+    public byte[] getWorkingHours() { return workingHours; }
+    public void setWorkingHours(byte[] workingHours) { this.workingHours = workingHours; }
+    
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+    
+    // Composite primary key
+    public static class Key implements Serializable {
+        private String username;
+        private String month;
+        
+        public Key() {}
+        
+        public Key(String username, String month) {
+            this.username = username;
+            this.month = month;
+        }
+        
+        public String getUsername() { return username; }
+        public String getMonth() { return month; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(username, key.username) && Objects.equals(month, key.month);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, month);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.staffmanagement.model;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
 
 public class AttendanceRequest {
     private String username;
+    private LocalDate attendanceDate; // Used by bulk ingestion; manual attendance always targets today
     private LocalTime checkInTime;
     private LocalTime checkOutTime;
     private String status;
@@ -12,6 +14,8 @@ public class AttendanceRequest {
     // Getters and setters
     public String getUsername() { return username; }
     public void setUsername(String username) { this.username = username; }
+    public LocalDate getAttendanceDate() { return attendanceDate; }
+    public void setAttendanceDate(LocalDate attendanceDate) { this.attendanceDate = attendanceDate; }
     public LocalTime getCheckInTime() { return checkInTime; }
     public void setCheckInTime(LocalTime checkInTime) { this.checkInTime = checkInTime; }
     public LocalTime getCheckOutTime() { return checkOutTime; }
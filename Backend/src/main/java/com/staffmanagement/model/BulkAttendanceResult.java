@@ -0,0 +1,58 @@
+package com.staffmanagement.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkAttendanceResult {
+    private int total;
+    private int inserted;
+    private int updated;
+    private int failed;
+    private List<RecordResult> records = new ArrayList<>();
+
+    public void addRecord(RecordResult record) {
+        records.add(record);
+        total++;
+        switch (record.getResult()) {
+            case RecordResult.INSERTED -> inserted++;
+            case RecordResult.UPDATED -> updated++;
+            default -> failed++;
+        }
+    }
+
+    // Getters
+    public int getTotal() { return total; }
+    public int getInserted() { return inserted; }
+    public int getUpdated() { return updated; }
+    public int getFailed() { return failed; }
+    public List<RecordResult> getRecords() { return records; }
+
+    // Outcome of a single punch, identified by its position in the submitted batch
+    public static class RecordResult {
+        public static final String INSERTED = "INSERTED";
+        public static final String UPDATED = "UPDATED";
+        public static final String FAILED = "FAILED";
+
+        private int index;
+        private String username;
+        private LocalDate attendanceDate;
+        private String result;
+        private String message;
+
+        public RecordResult(int index, String username, LocalDate attendanceDate, String result, String message) {
+            this.index = index;
+            this.username = username;
+            this.attendanceDate = attendanceDate;
+            this.result = result;
+            this.message = message;
+        }
+
+        // Getters
+        public int getIndex() { return index; }
+        public String getUsername() { return username; }
+        public LocalDate getAttendanceDate() { return attendanceDate; }
+        public String getResult() { return result; }
+        public String getMessage() { return message; }
+    }
+}
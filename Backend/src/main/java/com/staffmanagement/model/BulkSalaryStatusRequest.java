@@ -0,0 +1,29 @@
+package com.staffmanagement.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+// All salaries of a month (optionally one department) in fromStatus move to toStatus
+public class BulkSalaryStatusRequest {
+    private YearMonth salaryMonth;
+    private String department;
+    private String fromStatus;
+    private String toStatus;
+    private LocalDate paymentDate;
+
+    // Getters and Setters
+    public YearMonth getSalaryMonth() { return salaryMonth; }
+    public void setSalaryMonth(YearMonth salaryMonth) { this.salaryMonth = salaryMonth; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getFromStatus() { return fromStatus; }
+    public void setFromStatus(String fromStatus) { this.fromStatus = fromStatus; }
+
+    public String getToStatus() { return toStatus; }
+    public void setToStatus(String toStatus) { this.toStatus = toStatus; }
+
+    public LocalDate getPaymentDate() { return paymentDate; }
+    public void setPaymentDate(LocalDate paymentDate) { this.paymentDate = paymentDate; }
+}
@@ -0,0 +1,32 @@
+package com.staffmanagement.model;
+
+import java.time.YearMonth;
+
+public class BulkSalaryStatusResult {
+    private final YearMonth salaryMonth;
+    private final String department;
+    private final String fromStatus;
+    private final String toStatus;
+    private int updated;
+    private int chunks;
+
+    public BulkSalaryStatusResult(YearMonth salaryMonth, String department, String fromStatus, String toStatus) {
+        this.salaryMonth = salaryMonth;
+        this.department = department;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+    }
+
+    public void addChunk(int updatedRows) {
+        updated += updatedRows;
+        chunks++;
+    }
+
+    // Getters
+    public YearMonth getSalaryMonth() { return salaryMonth; }
+    public String getDepartment() { return department; }
+    public String getFromStatus() { return fromStatus; }
+    public String getToStatus() { return toStatus; }
+    public int getUpdated() { return updated; }
+    public int getChunks() { return chunks; }
+}
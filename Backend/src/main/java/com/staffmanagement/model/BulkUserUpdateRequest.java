@@ -0,0 +1,20 @@
+package com.staffmanagement.model;
+
+import java.util.List;
+
+public class BulkUserUpdateRequest {
+    private List<String> usernames;
+    // Either or both; a null field is left unchanged
+    private String department;
+    private String role;
+
+    // Getters and Setters
+    public List<String> getUsernames() { return usernames; }
+    public void setUsernames(List<String> usernames) { this.usernames = usernames; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+}
@@ -0,0 +1,87 @@
+package com.staffmanagement.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress and outcome of a month's payroll run. Counters are updated by the
+ * worker threads while the run is in progress and can be read at any time.
+ */
+public class PayrollRun {
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private static final int MAX_ERRORS = 100;
+
+    private final String id;
+    private final YearMonth month;
+    private final boolean overtimeFromAttendance;
+    private volatile String status = RUNNING;
+    private volatile int totalUsers;
+    private final AtomicInteger alreadyCalculated = new AtomicInteger();
+    private final AtomicInteger calculated = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private BigDecimal totalNetSalary = BigDecimal.ZERO;
+    private final List<String> errors = new ArrayList<>();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+
+    public PayrollRun(String id, YearMonth month) {
+        this(id, month, false);
+    }
+
+    public PayrollRun(String id, YearMonth month, boolean overtimeFromAttendance) {
+        this.id = id;
+        this.month = month;
+        this.overtimeFromAttendance = overtimeFromAttendance;
+    }
+
+    public void addCalculated(int count, BigDecimal netSalary) {
+        calculated.addAndGet(count);
+        synchronized (this) {
+            totalNetSalary = totalNetSalary.add(netSalary);
+        }
+    }
+
+    // Keeps the first errors only; the failed count covers the rest
+    public void addFailure(String username, String message) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(username + ": " + message);
+            }
+        }
+    }
+
+    public void finish(String status) {
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+
+    public void setTotalUsers(int totalUsers) { this.totalUsers = totalUsers; }
+    public void addAlreadyCalculated(int count) { alreadyCalculated.addAndGet(count); }
+
+    // Getters
+    public String getId() { return id; }
+    public YearMonth getMonth() { return month; }
+    public boolean isOvertimeFromAttendance() { return overtimeFromAttendance; }
+    public String getStatus() { return status; }
+    public int getTotalUsers() { return totalUsers; }
+    public int getAlreadyCalculated() { return alreadyCalculated.get(); }
+    public int getCalculated() { return calculated.get(); }
+    public int getFailed() { return failed.get(); }
+    public synchronized BigDecimal getTotalNetSalary() { return totalNetSalary; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+}
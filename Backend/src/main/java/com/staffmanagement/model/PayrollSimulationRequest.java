@@ -0,0 +1,41 @@
+package com.staffmanagement.model;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+// Rule overrides for a what-if payroll; unset fields keep each designation's salary structure
+public class PayrollSimulationRequest {
+    private YearMonth salaryMonth;
+    private BigDecimal hraPercentage;
+    private BigDecimal travelAllowance;
+    private BigDecimal medicalAllowance;
+    private BigDecimal overtimeRate;
+    private BigDecimal pfPercentage;
+    private BigDecimal annualTaxThreshold;
+    private BigDecimal taxPercentage;
+
+    // Getters and Setters
+    public YearMonth getSalaryMonth() { return salaryMonth; }
+    public void setSalaryMonth(YearMonth salaryMonth) { this.salaryMonth = salaryMonth; }
+
+    public BigDecimal getHraPercentage() { return hraPercentage; }
+    public void setHraPercentage(BigDecimal hraPercentage) { this.hraPercentage = hraPercentage; }
+
+    public BigDecimal getTravelAllowance() { return travelAllowance; }
+    public void setTravelAllowance(BigDecimal travelAllowance) { this.travelAllowance = travelAllowance; }
+
+    public BigDecimal getMedicalAllowance() { return medicalAllowance; }
+    public void setMedicalAllowance(BigDecimal medicalAllowance) { this.medicalAllowance = medicalAllowance; }
+
+    public BigDecimal getOvertimeRate() { return overtimeRate; }
+    public void setOvertimeRate(BigDecimal overtimeRate) { this.overtimeRate = overtimeRate; }
+
+    public BigDecimal getPfPercentage() { return pfPercentage; }
+    public void setPfPercentage(BigDecimal pfPercentage) { this.pfPercentage = pfPercentage; }
+
+    public BigDecimal getAnnualTaxThreshold() { return annualTaxThreshold; }
+    public void setAnnualTaxThreshold(BigDecimal annualTaxThreshold) { this.annualTaxThreshold = annualTaxThreshold; }
+
+    public BigDecimal getTaxPercentage() { return taxPercentage; }
+    public void setTaxPercentage(BigDecimal taxPercentage) { this.taxPercentage = taxPercentage; }
+}
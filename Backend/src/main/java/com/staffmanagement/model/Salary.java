@@ -6,7 +6,9 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 
 @Entity
-@Table(name = "salaries")
+@Table(name = "salaries", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"username", "salary_month"})
+})
 public class Salary {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -15,7 +17,11 @@ public class Salary {
     @Column(name = "username", nullable = false)
     private String username;
 
-    @Column(name = "salary_month", nullable = false)
+    // The user's department when the salary was created; salary aggregates are keyed by it
+    @Column(name = "department")
+    private String department;
+
+    @Column(name = "salary_month", nullable = false, length = 7)
     private YearMonth salaryMonth;
 
     @Column(name = "basic_salary", nullable = false, precision = 10, scale = 2)
@@ -96,6 +102,9 @@ public class Salary {
     public String getUsername() { return username; }
     public void setUsername(String username) { this.username = username; }
 
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
     public YearMonth getSalaryMonth() { return salaryMonth; }
     public void setSalaryMonth(YearMonth salaryMonth) { this.salaryMonth = salaryMonth; }
 
@@ -0,0 +1,124 @@
+package com.staffmanagement.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Running salary totals for one month and one department, or for the whole
+ * month (the empty department {@link #ALL_DEPARTMENTS}, which no department
+ * row can use: salaries without a department are counted under "N/A").
+ * Maintained incrementally by every salary write in the same transaction.
+ */
+@Entity
+@Table(name = "salary_aggregates")
+@IdClass(SalaryAggregate.Key.class)
+public class SalaryAggregate {
+    public static final String ALL_DEPARTMENTS = "";
+    
+    @Id
+    @Column(name = "salary_month", nullable = false, length = 7)
+    private String month; // yyyy-MM
+    
+    @Id
+    @Column(name = "department", nullable = false)
+    private String department;
+    
+    @Column(name = "salary_count", nullable = false)
+    private long salaryCount;
+    
+    @Column(name = "gross_total", nullable = false, precision = 15, scale = 2)
+    private BigDecimal grossTotal = BigDecimal.ZERO;
+    
+    @Column(name = "net_total", nullable = false, precision = 15, scale = 2)
+    private BigDecimal netTotal = BigDecimal.ZERO;
+    
+    @Column(name = "paid_count", nullable = false)
+    private long paidCount;
+    
+    @Column(name = "paid_net_total", nullable = false, precision = 15, scale = 2)
+    private BigDecimal paidNetTotal = BigDecimal.ZERO;
+    
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+    
+    @Column(name = "pending_net_total", nullable = false, precision = 15, scale = 2)
+    private BigDecimal pendingNetTotal = BigDecimal.ZERO;
+    
+    // Constructors
+    public SalaryAggregate() {}
+    
+    public BigDecimal getAverageGross() {
+        return average(grossTotal);
+    }
+    
+    public BigDecimal getAverageNet() {
+        return average(netTotal);
+    }
+    
+    private BigDecimal average(BigDecimal total) {
+        return salaryCount > 0
+                ? total.divide(BigDecimal.valueOf(salaryCount), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+    
+    // Getters and Setters
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+    
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+    
+    public long getSalaryCount() { return salaryCount; }
+    public void setSalaryCount(long salaryCount) { this.salaryCount = salaryCount; }
+    
+    public BigDecimal getGrossTotal() { return grossTotal; }
+    public void setGrossTotal(BigDecimal grossTotal) { this.grossTotal = grossTotal; }
+    
+    public BigDecimal getNetTotal() { return netTotal; }
+    public void setNetTotal(BigDecimal netTotal) { this.netTotal = netTotal; }
+    
+    public long getPaidCount() { return paidCount; }
+    public void setPaidCount(long paidCount) { this.paidCount = paidCount; }
+    
+    public BigDecimal getPaidNetTotal() { return paidNetTotal; }
+    public void setPaidNetTotal(BigDecimal paidNetTotal) { this.paidNetTotal = paidNetTotal; }
+    
+    public long getPendingCount() { return pendingCount; }
+    public void setPendingCount(long pendingCount) { this.pendingCount = pendingCount; }
+    
+    public BigDecimal getPendingNetTotal() { return pendingNetTotal; }
+    public void setPendingNetTotal(BigDecimal pendingNetTotal) { this.pendingNetTotal = pendingNetTotal; }
+    
+    // Composite primary key
+    public static class Key implements Serializable {
+        private String month;
+        private String department;
+        
+        public Key() {}
+        
+        public Key(String month, String department) {
+            this.month = month;
+            this.department = department;
+        }
+        
+        public String getMonth() { return month; }
+        public String getDepartment() { return department; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(month, key.month) && Objects.equals(department, key.department);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(month, department);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.staffmanagement.model;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published whenever salaries are written, so caches derived from them can
+ * be refreshed. Listeners receive it after the write commits. Set-based
+ * writes that do not know the affected users name only the month; an event
+ * for everything is used for resets.
+ */
+public class SalaryChangedEvent {
+    private final Set<String> usernames;
+    private final Set<YearMonth> months;
+    private final boolean all;
+
+    private SalaryChangedEvent(Set<String> usernames, Set<YearMonth> months, boolean all) {
+        this.usernames = usernames;
+        this.months = months;
+        this.all = all;
+    }
+
+    public static SalaryChangedEvent of(String username, YearMonth month) {
+        return new SalaryChangedEvent(Set.of(username), Set.of(month), false);
+    }
+
+    // Salaries of these users were written for the month
+    public static SalaryChangedEvent of(Collection<String> usernames, YearMonth month) {
+        return new SalaryChangedEvent(Set.copyOf(usernames), Set.of(month), false);
+    }
+
+    // Some salaries of the month were written, users unknown
+    public static SalaryChangedEvent ofMonth(YearMonth month) {
+        return new SalaryChangedEvent(Set.of(), Set.of(month), false);
+    }
+
+    public static SalaryChangedEvent allSalaries() {
+        return new SalaryChangedEvent(Set.of(), Set.of(), true);
+    }
+
+    // Getters
+    public Set<String> getUsernames() { return usernames; }
+    public Set<YearMonth> getMonths() { return months; }
+    public boolean isAll() { return all; }
+}
@@ -12,6 +12,8 @@ public class SalaryRequest {
     private BigDecimal medicalAllowance;
     private BigDecimal bonus;
     private Double overtimeHours;
+    // Derive overtime hours from the month's attendance when none are given
+    private Boolean overtimeFromAttendance;
     private BigDecimal overtimeRate;
     private BigDecimal taxDeduction;
     private BigDecimal providentFund;
@@ -43,6 +45,9 @@ public class SalaryRequest {
     public Double getOvertimeHours() { return overtimeHours; }
     public void setOvertimeHours(Double overtimeHours) { this.overtimeHours = overtimeHours; }
 
+    public Boolean getOvertimeFromAttendance() { return overtimeFromAttendance; }
+    public void setOvertimeFromAttendance(Boolean overtimeFromAttendance) { this.overtimeFromAttendance = overtimeFromAttendance; }
+
     public BigDecimal getOvertimeRate() { return overtimeRate; }
     public void setOvertimeRate(BigDecimal overtimeRate) { this.overtimeRate = overtimeRate; }
 
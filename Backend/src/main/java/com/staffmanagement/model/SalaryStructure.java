@@ -0,0 +1,99 @@
+package com.staffmanagement.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Salary components for one designation from a given date on. Percentages
+ * are stored as percent (40.00 = 40%). The structure with the latest
+ * effective date on or before the first day of a salary month applies to
+ * that month; the STAFF structure applies to designations without their own.
+ */
+@Entity
+@Table(name = "salary_structures", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"designation", "effective_from"})
+})
+public class SalaryStructure {
+    public static final String DEFAULT_DESIGNATION = "STAFF";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "designation", nullable = false)
+    private String designation; // upper case
+    
+    @Column(name = "effective_from", nullable = false)
+    private LocalDate effectiveFrom;
+    
+    @Column(name = "basic_salary", nullable = false, precision = 10, scale = 2)
+    private BigDecimal basicSalary;
+    
+    @Column(name = "hra_percentage", nullable = false, precision = 5, scale = 2)
+    private BigDecimal hraPercentage;
+    
+    @Column(name = "travel_allowance", nullable = false, precision = 10, scale = 2)
+    private BigDecimal travelAllowance;
+    
+    @Column(name = "medical_allowance", nullable = false, precision = 10, scale = 2)
+    private BigDecimal medicalAllowance;
+    
+    @Column(name = "overtime_rate", nullable = false, precision = 10, scale = 2)
+    private BigDecimal overtimeRate;
+    
+    @Column(name = "pf_percentage", nullable = false, precision = 5, scale = 2)
+    private BigDecimal pfPercentage;
+    
+    @Column(name = "annual_tax_threshold", nullable = false, precision = 12, scale = 2)
+    private BigDecimal annualTaxThreshold;
+    
+    @Column(name = "tax_percentage", nullable = false, precision = 5, scale = 2)
+    private BigDecimal taxPercentage;
+    
+    @Column(name = "created_at")
+    private LocalDate createdAt;
+    
+    // Constructors
+    public SalaryStructure() {
+        this.createdAt = LocalDate.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getDesignation() { return designation; }
+    public void setDesignation(String designation) { this.designation = designation; }
+    
+    public LocalDate getEffectiveFrom() { return effectiveFrom; }
+    public void setEffectiveFrom(LocalDate effectiveFrom) { this.effectiveFrom = effectiveFrom; }
+    
+    public BigDecimal getBasicSalary() { return basicSalary; }
+    public void setBasicSalary(BigDecimal basicSalary) { this.basicSalary = basicSalary; }
+    
+    public BigDecimal getHraPercentage() { return hraPercentage; }
+    public void setHraPercentage(BigDecimal hraPercentage) { this.hraPercentage = hraPercentage; }
+    
+    public BigDecimal getTravelAllowance() { return travelAllowance; }
+    public void setTravelAllowance(BigDecimal travelAllowance) { this.travelAllowance = travelAllowance; }
+    
+    public BigDecimal getMedicalAllowance() { return medicalAllowance; }
+    public void setMedicalAllowance(BigDecimal medicalAllowance) { this.medicalAllowance = medicalAllowance; }
+    
+    public BigDecimal getOvertimeRate() { return overtimeRate; }
+    public void setOvertimeRate(BigDecimal overtimeRate) { this.overtimeRate = overtimeRate; }
+    
+    public BigDecimal getPfPercentage() { return pfPercentage; }
+    public void setPfPercentage(BigDecimal pfPercentage) { this.pfPercentage = pfPercentage; }
+    
+    public BigDecimal getAnnualTaxThreshold() { return annualTaxThreshold; }
+    public void setAnnualTaxThreshold(BigDecimal annualTaxThreshold) { this.annualTaxThreshold = annualTaxThreshold; }
+    
+    public BigDecimal getTaxPercentage() { return taxPercentage; }
+    public void setTaxPercentage(BigDecimal taxPercentage) { this.taxPercentage = taxPercentage; }
+    
+    public LocalDate getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDate createdAt) { this.createdAt = createdAt; }
+}
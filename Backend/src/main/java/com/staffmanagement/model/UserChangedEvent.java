@@ -0,0 +1,35 @@
+package com.staffmanagement.model;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published whenever users are created or updated, so caches holding user
+ * details can be refreshed. Listeners receive it after the write commits.
+ * An event for all users is used for resets.
+ */
+public class UserChangedEvent {
+    private final Set<String> usernames;
+    private final boolean all;
+
+    private UserChangedEvent(Set<String> usernames, boolean all) {
+        this.usernames = usernames;
+        this.all = all;
+    }
+
+    public static UserChangedEvent of(String username) {
+        return new UserChangedEvent(Set.of(username), false);
+    }
+
+    public static UserChangedEvent of(Collection<String> usernames) {
+        return new UserChangedEvent(Set.copyOf(usernames), false);
+    }
+
+    public static UserChangedEvent allUsers() {
+        return new UserChangedEvent(Set.of(), true);
+    }
+
+    // Getters
+    public Set<String> getUsernames() { return usernames; }
+    public boolean isAll() { return all; }
+}
@@ -0,0 +1,24 @@
+package com.staffmanagement.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.YearMonth;
+
+/**
+ * Stores YearMonth columns as "yyyy-MM" text, which sorts chronologically and
+ * can be written and compared from plain JDBC.
+ */
+@Converter(autoApply = true)
+public class YearMonthAttributeConverter implements AttributeConverter<YearMonth, String> {
+
+    @Override
+    public String convertToDatabaseColumn(YearMonth month) {
+        return month != null ? month.toString() : null;
+    }
+
+    @Override
+    public YearMonth convertToEntityAttribute(String month) {
+        return month != null ? YearMonth.parse(month) : null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.staffmanagement.repository;
+
+import com.staffmanagement.model.AttendanceCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttendanceCounterRepository extends JpaRepository<AttendanceCounter, AttendanceCounter.Key> {
+}
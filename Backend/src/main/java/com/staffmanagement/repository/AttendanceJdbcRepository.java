@@ -0,0 +1,204 @@
+package com.staffmanagement.repository;
+
+import com.staffmanagement.model.Attendance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to the attendance table for set-based and batched work
+ * that would be too slow through the JPA repository.
+ */
+@Repository
+public class AttendanceJdbcRepository {
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, username, attendance_date, check_in_time, check_out_time, status, working_hours, notes FROM attendance ";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO attendance (username, attendance_date, check_in_time, check_out_time, status, working_hours, notes) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE attendance SET check_in_time = ?, check_out_time = ?, status = ?, working_hours = ?, notes = ? " +
+            "WHERE id = ?";
+
+    // Inserts today's row unless one exists; never updates, so a duplicate check-in changes nothing
+    private static final String CHECK_IN_MERGE =
+            "MERGE INTO attendance t USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS DATE), CAST(? AS TIME))) " +
+            "s (username, attendance_date, check_in_time) " +
+            "ON t.username = s.username AND t.attendance_date = s.attendance_date " +
+            "WHEN NOT MATCHED THEN INSERT (username, attendance_date, check_in_time, status) " +
+            "VALUES (s.username, s.attendance_date, s.check_in_time, 'PRESENT')";
+
+    private static final String CHECK_IN_UPDATE =
+            "UPDATE attendance SET check_in_time = ?, status = 'PRESENT' " +
+            "WHERE id = ? AND check_in_time IS NULL AND status IS NOT DISTINCT FROM ?";
+
+    private static final String CHECK_OUT_UPDATE =
+            "UPDATE attendance SET check_out_time = ?, working_hours = ? " +
+            "WHERE id = ? AND check_in_time = ? AND check_out_time IS NULL";
+
+    public static final RowMapper<Attendance> ATTENDANCE_ROW_MAPPER = (rs, rowNum) -> {
+        Attendance attendance = new Attendance();
+        attendance.setId(rs.getLong("id"));
+        attendance.setUsername(rs.getString("username"));
+        attendance.setAttendanceDate(rs.getDate("attendance_date").toLocalDate());
+        Time checkIn = rs.getTime("check_in_time");
+        attendance.setCheckInTime(checkIn != null ? checkIn.toLocalTime() : null);
+        Time checkOut = rs.getTime("check_out_time");
+        attendance.setCheckOutTime(checkOut != null ? checkOut.toLocalTime() : null);
+        attendance.setStatus(rs.getString("status"));
+        double hours = rs.getDouble("working_hours");
+        attendance.setWorkingHours(rs.wasNull() ? null : hours);
+        attendance.setNotes(rs.getString("notes"));
+        return attendance;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // Load every row for the given users inside [from, to] in a single query (index range scan per user)
+    public List<Attendance> findByUsernamesAndDateRange(Collection<String> usernames, LocalDate from, LocalDate to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("usernames", usernames)
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to));
+        return namedParameterJdbcTemplate.query(
+                SELECT_COLUMNS + "WHERE username IN (:usernames) AND attendance_date BETWEEN :from AND :to",
+                params, ATTENDANCE_ROW_MAPPER);
+    }
+
+    public Optional<Attendance> findByUsernameAndDate(String username, LocalDate date) {
+        List<Attendance> rows = jdbcTemplate.query(SELECT_COLUMNS + "WHERE username = ? AND attendance_date = ?",
+                ATTENDANCE_ROW_MAPPER, username, Date.valueOf(date));
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Creates the day's row as a check-in in one statement. Returns the new
+     * row's id, or null when the user already has a row for the day.
+     */
+    public Long insertCheckIn(String username, LocalDate date, LocalTime checkInTime) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int inserted;
+        try {
+            inserted = jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(CHECK_IN_MERGE, new String[] { "id" });
+                ps.setString(1, username);
+                ps.setDate(2, Date.valueOf(date));
+                ps.setTime(3, Time.valueOf(checkInTime));
+                return ps;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            // A concurrent check-in created the row between the match and the insert
+            return null;
+        }
+        if (inserted == 0) {
+            return null;
+        }
+        Number id = keyHolder.getKey();
+        return id != null ? id.longValue() : findByUsernameAndDate(username, date).map(Attendance::getId).orElse(null);
+    }
+
+    // Sets the check-in on an existing row, only if it has none and its status is still the one read
+    public boolean updateCheckIn(long id, String expectedStatus, LocalTime checkInTime) {
+        return jdbcTemplate.update(CHECK_IN_UPDATE,
+                new Object[] { Time.valueOf(checkInTime), id, expectedStatus },
+                new int[] { Types.TIME, Types.BIGINT, Types.VARCHAR }) == 1;
+    }
+
+    // Sets the check-out, only if the row has none and still has the check-in the hours were computed from
+    public boolean updateCheckOut(long id, LocalTime expectedCheckIn, LocalTime checkOutTime, Double workingHours) {
+        return jdbcTemplate.update(CHECK_OUT_UPDATE,
+                new Object[] { Time.valueOf(checkOutTime), workingHours, id, Time.valueOf(expectedCheckIn) },
+                new int[] { Types.TIME, Types.DOUBLE, Types.BIGINT, Types.TIME }) == 1;
+    }
+
+    /**
+     * Streams a user's history, newest first, off a forward-only cursor so rows
+     * are handed to the callback as they are fetched
+     */
+    public void streamByUsername(String username, int fetchSize, Consumer<Attendance> consumer) {
+        stream(SELECT_COLUMNS + "WHERE username = ? ORDER BY attendance_date DESC", fetchSize, consumer, username);
+    }
+
+    // Streams every row in [from, to] ordered by username then date, in (username, attendance_date) index order
+    public void streamByDateRange(LocalDate from, LocalDate to, int fetchSize, Consumer<Attendance> consumer) {
+        stream(SELECT_COLUMNS + "WHERE attendance_date BETWEEN ? AND ? ORDER BY username, attendance_date",
+                fetchSize, consumer, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private void stream(String sql, int fetchSize, Consumer<Attendance> consumer, Object... args) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(ATTENDANCE_ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    public int[][] batchInsert(List<Attendance> attendances, int batchSize) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, attendances, batchSize, (ps, a) -> {
+            ps.setString(1, a.getUsername());
+            ps.setDate(2, Date.valueOf(a.getAttendanceDate()));
+            setTime(ps, 3, a.getCheckInTime());
+            setTime(ps, 4, a.getCheckOutTime());
+            ps.setString(5, a.getStatus());
+            setDouble(ps, 6, a.getWorkingHours());
+            ps.setString(7, a.getNotes());
+        });
+    }
+
+    public int[][] batchUpdate(List<Attendance> attendances, int batchSize) {
+        return jdbcTemplate.batchUpdate(UPDATE_SQL, attendances, batchSize, (ps, a) -> {
+            setTime(ps, 1, a.getCheckInTime());
+            setTime(ps, 2, a.getCheckOutTime());
+            ps.setString(3, a.getStatus());
+            setDouble(ps, 4, a.getWorkingHours());
+            ps.setString(5, a.getNotes());
+            ps.setLong(6, a.getId());
+        });
+    }
+
+    private static void setTime(PreparedStatement ps, int index, LocalTime time) throws SQLException {
+        if (time != null) {
+            ps.setTime(index, Time.valueOf(time));
+        } else {
+            ps.setNull(index, Types.TIME);
+        }
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.staffmanagement.repository;
+
+import com.staffmanagement.model.AttendanceMonthArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AttendanceMonthArchiveRepository extends JpaRepository<AttendanceMonthArchive, AttendanceMonthArchive.Key> {
+    
+    List<AttendanceMonthArchive> findByUsernameOrderByMonthDesc(String username);
+    
+    List<AttendanceMonthArchive> findByMonthOrderByUsername(String month);
+    
+    @Query("SELECT DISTINCT a.month FROM AttendanceMonthArchive a")
+    List<String> findClosedMonths();
+    
+    @Query("SELECT a.username FROM AttendanceMonthArchive a WHERE a.month = :month AND a.username IN :usernames")
+    List<String> findArchivedUsernames(@Param("month") String month, @Param("usernames") List<String> usernames);
+}
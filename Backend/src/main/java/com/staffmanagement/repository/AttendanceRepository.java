@@ -1,6 +1,7 @@
 package com.staffmanagement.repository;
 
 import com.staffmanagement.model.Attendance;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,11 +20,24 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     
     List<Attendance> findByUsernameOrderByAttendanceDateDesc(String username);
     
+    // Keyset pagination over a user's history, newest first; the cursor is the last date already seen
+    List<Attendance> findByUsernameOrderByAttendanceDateDesc(String username, Pageable pageable);
+    
+    List<Attendance> findByUsernameAndAttendanceDateBeforeOrderByAttendanceDateDesc(String username, LocalDate before, Pageable pageable);
+    
     @Query("SELECT a FROM Attendance a WHERE a.username = :username AND a.attendanceDate = CURRENT_DATE")
     Optional<Attendance> findTodayAttendance(@Param("username") String username);
     
-    @Query("SELECT a FROM Attendance a WHERE a.username = :username AND YEAR(a.attendanceDate) = :year AND MONTH(a.attendanceDate) = :month ORDER BY a.attendanceDate DESC")
-    List<Attendance> findMonthlyAttendance(@Param("username") String username, @Param("year") int year, @Param("month") int month);
+    // Half-open range [startDate, endDate) so the (username, attendance_date) index can be range-scanned
+    @Query("SELECT a FROM Attendance a WHERE a.username = :username AND a.attendanceDate >= :startDate AND a.attendanceDate < :endDate ORDER BY a.attendanceDate DESC")
+    List<Attendance> findByUsernameAndDateRange(@Param("username") String username,
+                                                @Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate);
+    
+    default List<Attendance> findMonthlyAttendance(String username, int year, int month) {
+        LocalDate startDate = LocalDate.of(year, month, 1);
+        return findByUsernameAndDateRange(username, startDate, startDate.plusMonths(1));
+    }
     
     List<Attendance> findByAttendanceDateOrderByUsername(LocalDate attendanceDate);
     
@@ -0,0 +1,13 @@
+package com.staffmanagement.repository;
+
+import com.staffmanagement.model.SalaryAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SalaryAggregateRepository extends JpaRepository<SalaryAggregate, SalaryAggregate.Key> {
+    
+    List<SalaryAggregate> findByMonthOrderByDepartment(String month);
+}
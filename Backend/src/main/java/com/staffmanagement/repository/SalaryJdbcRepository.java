@@ -0,0 +1,200 @@
+package com.staffmanagement.repository;
+
+import com.staffmanagement.model.Salary;
+import com.staffmanagement.model.SalaryResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to the salaries table for batched and set-based writes
+ * that would be too slow through the JPA repository.
+ */
+@Repository
+public class SalaryJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO salaries (username, salary_month, basic_salary, house_rent_allowance, travel_allowance, " +
+            "medical_allowance, bonus, overtime_hours, overtime_rate, overtime_pay, tax_deduction, provident_fund, " +
+            "other_deductions, net_salary, gross_salary, payment_date, payment_status, bank_account_number, notes, " +
+            "created_at, updated_at, department) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Bulk status transitions select a month's salaries in one status, optionally for one department
+    private static final String STATUS_CHUNK_FILTER =
+            "s.salary_month = ? AND s.payment_status = ? AND s.id > ?";
+
+    // The department recorded on the salary, the same one its aggregates are keyed by
+    private static final String DEPARTMENT_FILTER = " AND s.department = ?";
+
+    // Salary rows with the user's name and department, shaped like SalaryResponse
+    private static final String PAYSLIP_SELECT =
+            "SELECT s.*, u.name AS employee_name, u.department AS employee_department FROM salaries s " +
+            "LEFT JOIN users u ON u.username = s.username ";
+
+    public static final RowMapper<SalaryResponse> PAYSLIP_ROW_MAPPER = (rs, rowNum) -> {
+        SalaryResponse response = new SalaryResponse();
+        response.setId(rs.getLong("id"));
+        response.setUsername(rs.getString("username"));
+        String name = rs.getString("employee_name");
+        response.setEmployeeName(name != null ? name : "N/A");
+        String department = rs.getString("employee_department");
+        response.setDepartment(department != null ? department : "N/A");
+        response.setSalaryMonth(YearMonth.parse(rs.getString("salary_month")));
+        response.setBasicSalary(rs.getBigDecimal("basic_salary"));
+        response.setHouseRentAllowance(rs.getBigDecimal("house_rent_allowance"));
+        response.setTravelAllowance(rs.getBigDecimal("travel_allowance"));
+        response.setMedicalAllowance(rs.getBigDecimal("medical_allowance"));
+        response.setBonus(rs.getBigDecimal("bonus"));
+        double overtimeHours = rs.getDouble("overtime_hours");
+        response.setOvertimeHours(rs.wasNull() ? null : overtimeHours);
+        response.setOvertimeRate(rs.getBigDecimal("overtime_rate"));
+        response.setOvertimePay(rs.getBigDecimal("overtime_pay"));
+        response.setTaxDeduction(rs.getBigDecimal("tax_deduction"));
+        response.setProvidentFund(rs.getBigDecimal("provident_fund"));
+        response.setOtherDeductions(rs.getBigDecimal("other_deductions"));
+        response.setGrossSalary(rs.getBigDecimal("gross_salary"));
+        response.setNetSalary(rs.getBigDecimal("net_salary"));
+        Date paymentDate = rs.getDate("payment_date");
+        response.setPaymentDate(paymentDate != null ? paymentDate.toLocalDate() : null);
+        response.setPaymentStatus(rs.getString("payment_status"));
+        response.setBankAccountNumber(rs.getString("bank_account_number"));
+        response.setNotes(rs.getString("notes"));
+        return response;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public int[][] batchInsert(List<Salary> salaries, int batchSize) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, salaries, batchSize, (ps, s) -> {
+            ps.setString(1, s.getUsername());
+            ps.setString(2, s.getSalaryMonth().toString());
+            ps.setBigDecimal(3, s.getBasicSalary());
+            ps.setBigDecimal(4, s.getHouseRentAllowance());
+            ps.setBigDecimal(5, s.getTravelAllowance());
+            ps.setBigDecimal(6, s.getMedicalAllowance());
+            ps.setBigDecimal(7, s.getBonus());
+            if (s.getOvertimeHours() != null) {
+                ps.setDouble(8, s.getOvertimeHours());
+            } else {
+                ps.setNull(8, Types.DOUBLE);
+            }
+            ps.setBigDecimal(9, s.getOvertimeRate());
+            ps.setBigDecimal(10, s.getOvertimePay());
+            ps.setBigDecimal(11, s.getTaxDeduction());
+            ps.setBigDecimal(12, s.getProvidentFund());
+            ps.setBigDecimal(13, s.getOtherDeductions());
+            ps.setBigDecimal(14, s.getNetSalary());
+            ps.setBigDecimal(15, s.getGrossSalary());
+            setDate(ps, 16, s.getPaymentDate());
+            ps.setString(17, s.getPaymentStatus());
+            ps.setString(18, s.getBankAccountNumber());
+            ps.setString(19, s.getNotes());
+            setDate(ps, 20, s.getCreatedAt());
+            setDate(ps, 21, s.getUpdatedAt());
+            ps.setString(22, s.getDepartment());
+        });
+    }
+
+    // Streams the month's payslips ordered by username from a forward-only cursor
+    public void streamPayslipsByMonth(YearMonth month, int fetchSize, Consumer<SalaryResponse> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(PAYSLIP_SELECT + "WHERE s.salary_month = ? ORDER BY s.username",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, month.toString());
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(PAYSLIP_ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    // Streams the month's calculation inputs with the user's department and designation
+    public void streamSimulationInputs(YearMonth month, int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT s.basic_salary, s.bonus, s.overtime_hours, s.other_deductions, " +
+                    "u.department, u.designation FROM salaries s " +
+                    "LEFT JOIN users u ON u.username = s.username WHERE s.salary_month = ?",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, month.toString());
+            return ps;
+        }, handler);
+    }
+
+    // Highest id of the next chunkSize matching salaries after afterId, or null when none are left
+    public Long findStatusChunkEnd(YearMonth month, String status, String department, long afterId, int chunkSize) {
+        String sql = "SELECT MAX(id) FROM (SELECT s.id FROM salaries s WHERE " + STATUS_CHUNK_FILTER +
+                (department != null ? DEPARTMENT_FILTER : "") + " ORDER BY s.id LIMIT ?) chunk";
+        List<Object> args = statusChunkArgs(month, status, department, afterId);
+        args.add(chunkSize);
+        return jdbcTemplate.queryForObject(sql, Long.class, args.toArray());
+    }
+
+    // Count and net total per department of the matching salaries with afterId < id <= upToId
+    public List<Object[]> sumStatusChunk(YearMonth month, String status, String department, long afterId, long upToId) {
+        String sql = "SELECT COALESCE(s.department, 'N/A'), COUNT(*), SUM(s.net_salary) FROM salaries s " +
+                "WHERE " + STATUS_CHUNK_FILTER + " AND s.id <= ?" +
+                (department != null ? DEPARTMENT_FILTER : "") +
+                " GROUP BY COALESCE(s.department, 'N/A')";
+        List<Object> args = statusChunkArgs(month, status, null, afterId);
+        args.add(upToId);
+        if (department != null) {
+            args.add(department);
+        }
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] { rs.getString(1), rs.getLong(2), rs.getBigDecimal(3) },
+                args.toArray());
+    }
+
+    /**
+     * Moves the matching salaries with afterId < id <= upToId to newStatus.
+     * A null paymentDate keeps each row's payment date.
+     */
+    public int updateStatusChunk(YearMonth month, String status, String department, long afterId, long upToId,
+                                 String newStatus, LocalDate paymentDate, LocalDate updatedAt) {
+        String sql = "UPDATE salaries s SET payment_status = ?, payment_date = COALESCE(CAST(? AS DATE), payment_date), " +
+                "updated_at = ? WHERE " + STATUS_CHUNK_FILTER + " AND s.id <= ?" +
+                (department != null ? DEPARTMENT_FILTER : "");
+        List<Object> args = new ArrayList<>();
+        args.add(newStatus);
+        args.add(paymentDate != null ? Date.valueOf(paymentDate) : null);
+        args.add(Date.valueOf(updatedAt));
+        args.addAll(statusChunkArgs(month, status, null, afterId));
+        args.add(upToId);
+        if (department != null) {
+            args.add(department);
+        }
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    private static List<Object> statusChunkArgs(YearMonth month, String status, String department, long afterId) {
+        List<Object> args = new ArrayList<>();
+        args.add(month.toString());
+        args.add(status);
+        args.add(afterId);
+        if (department != null) {
+            args.add(department);
+        }
+        return args;
+    }
+
+    private static void setDate(PreparedStatement ps, int index, LocalDate date) throws SQLException {
+        if (date != null) {
+            ps.setDate(index, Date.valueOf(date));
+        } else {
+            ps.setNull(index, Types.DATE);
+        }
+    }
+}
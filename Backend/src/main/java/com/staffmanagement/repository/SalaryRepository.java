@@ -33,14 +33,20 @@ public interface SalaryRepository extends JpaRepository<Salary, Long> {
     // Check if salary exists for user and month
     boolean existsByUsernameAndSalaryMonth(String username, YearMonth salaryMonth);
     
+    // Usernames that already have a salary for the month (payroll runs skip them)
+    @Query("SELECT s.username FROM Salary s WHERE s.salaryMonth = :month")
+    List<String> findUsernamesBySalaryMonth(@Param("month") YearMonth month);
+    
     // Get latest salary for a user - FIXED METHOD
     @Query("SELECT s FROM Salary s WHERE s.username = :username ORDER BY s.salaryMonth DESC")
     List<Salary> findLatestSalaryByUsername(@Param("username") String username);
     
+    // Top-1 read of the user's latest salary, served by the (username, salary_month) unique index
+    Optional<Salary> findFirstByUsernameOrderBySalaryMonthDesc(String username);
+    
     // Alternative method to get single latest salary
     default Optional<Salary> findMostRecentSalaryByUsername(String username) {
-        List<Salary> salaries = findLatestSalaryByUsername(username);
-        return salaries.stream().findFirst();
+        return findFirstByUsernameOrderBySalaryMonthDesc(username);
     }
     
     // Get salary summary for dashboard
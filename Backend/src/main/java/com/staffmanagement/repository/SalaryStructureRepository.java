@@ -0,0 +1,16 @@
+package com.staffmanagement.repository;
+
+import com.staffmanagement.model.SalaryStructure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalaryStructureRepository extends JpaRepository<SalaryStructure, Long> {
+    
+    List<SalaryStructure> findAllByOrderByDesignationAscEffectiveFromAsc();
+    
+    boolean existsByDesignationAndEffectiveFrom(String designation, LocalDate effectiveFrom);
+}
@@ -88,6 +88,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u.username FROM User u")
     List<String> findAllUsernames();
     
+    // Get all emails
+    @Query("SELECT u.email FROM User u WHERE u.email IS NOT NULL")
+    List<String> findAllEmails();
+    
+    // Username, name and department of every user, without loading entities
+    @Query("SELECT u.username, u.name, u.department FROM User u")
+    List<Object[]> findSuggestionFields();
+    
     // Get users with specific roles
     @Query("SELECT u FROM User u WHERE u.role IN :roles")
     List<User> findByRoles(@Param("roles") List<String> roles);
@@ -165,13 +173,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // ===== BULK OPERATIONS =====
     
     // Update department for multiple users
+    @Modifying
     @Query("UPDATE User u SET u.department = :department WHERE u.username IN :usernames")
-    void updateDepartmentForUsers(@Param("usernames") List<String> usernames, 
+    int updateDepartmentForUsers(@Param("usernames") List<String> usernames, 
                                  @Param("department") String department);
     
     // Update role for multiple users
+    @Modifying
     @Query("UPDATE User u SET u.role = :role WHERE u.username IN :usernames")
-    void updateRoleForUsers(@Param("usernames") List<String> usernames, 
+    int updateRoleForUsers(@Param("usernames") List<String> usernames, 
                            @Param("role") String role);
     
     // ===== ADVANCED SEARCH METHODS =====
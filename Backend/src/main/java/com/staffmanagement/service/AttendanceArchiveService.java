@@ -0,0 +1,229 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.Attendance;
+import com.staffmanagement.model.AttendanceChangedEvent;
+import com.staffmanagement.model.AttendanceMonthArchive;
+import com.staffmanagement.repository.AttendanceJdbcRepository;
+import com.staffmanagement.repository.AttendanceMonthArchiveRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Month close: packs each user's rows for a finished month into a single
+ * AttendanceMonthArchive row and removes them from the attendance table.
+ * Closed months are read back through the decode helpers here.
+ */
+@Service
+public class AttendanceArchiveService {
+
+    private static final int USERS_PER_BATCH = 500;
+    private static final int STREAM_FETCH_SIZE = 200;
+
+    @Autowired
+    private AttendanceMonthArchiveRepository archiveRepository;
+
+    @Autowired
+    private AttendanceJdbcRepository attendanceJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Set<YearMonth> closedMonths = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void loadClosedMonths() {
+        for (String month : archiveRepository.findClosedMonths()) {
+            closedMonths.add(YearMonth.parse(month));
+        }
+    }
+
+    public boolean isClosed(YearMonth month) {
+        return closedMonths.contains(month);
+    }
+
+    public boolean hasClosedMonths() {
+        return !closedMonths.isEmpty();
+    }
+
+    /**
+     * Archives every user's rows for the month. Users whose rows cannot be
+     * encoded exactly keep their raw rows and are reported as skipped.
+     */
+    public MonthCloseResult closeMonth(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Only past months can be closed: " + month);
+        }
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+
+        List<String> usernames = jdbcTemplate.queryForList(
+                "SELECT DISTINCT username FROM attendance WHERE attendance_date >= ? AND attendance_date < ? ORDER BY username",
+                String.class, Date.valueOf(start), Date.valueOf(start.plusMonths(1)));
+
+        // Mark the month closed first so bulk writes into it are rejected while it is being packed
+        closedMonths.add(month);
+
+        MonthCloseResult result = new MonthCloseResult(month.toString());
+        try {
+            for (int from = 0; from < usernames.size(); from += USERS_PER_BATCH) {
+                List<String> batch = usernames.subList(from, Math.min(from + USERS_PER_BATCH, usernames.size()));
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> archiveBatch(month, batch, start, end, result));
+            }
+        } catch (RuntimeException e) {
+            // Same rule as a restart: the month stays closed only if some of it is archived
+            if (!archiveRepository.findClosedMonths().contains(month.toString())) {
+                closedMonths.remove(month);
+            }
+            throw e;
+        }
+        // Archived days read back without row ids, so cached views of the month are stale
+        eventPublisher.publishEvent(AttendanceChangedEvent.allAttendance());
+        return result;
+    }
+
+    private void archiveBatch(YearMonth month, List<String> usernames, LocalDate start, LocalDate end, MonthCloseResult result) {
+        // A user already archived for this month only has rows left that could not be encoded
+        Set<String> alreadyArchived = new HashSet<>(archiveRepository.findArchivedUsernames(month.toString(), usernames));
+
+        Map<String, List<Attendance>> rowsByUser = new HashMap<>();
+        for (Attendance row : attendanceJdbcRepository.findByUsernamesAndDateRange(usernames, start, end)) {
+            rowsByUser.computeIfAbsent(row.getUsername(), k -> new ArrayList<>()).add(row);
+        }
+
+        List<AttendanceMonthArchive> archives = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (Map.Entry<String, List<Attendance>> entry : rowsByUser.entrySet()) {
+            AttendanceMonthArchive archive = alreadyArchived.contains(entry.getKey())
+                    ? null : AttendanceMonthCodec.encode(entry.getKey(), month, entry.getValue());
+            if (archive == null) {
+                result.usersSkipped++;
+                continue;
+            }
+            archives.add(archive);
+            deletes.add(new Object[] { entry.getKey(), Date.valueOf(start), Date.valueOf(start.plusMonths(1)) });
+            result.usersArchived++;
+            result.rowsArchived += entry.getValue().size();
+        }
+
+        // Plain batched inserts: saveAll would merge (and first select) each entity since the key is assigned
+        jdbcTemplate.batchUpdate("INSERT INTO attendance_month_archive (username, attendance_month, status_codes, " +
+                "check_in_minutes, check_out_minutes, working_hours, notes) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                archives, USERS_PER_BATCH, (ps, archive) -> {
+                    ps.setString(1, archive.getUsername());
+                    ps.setString(2, archive.getMonth());
+                    ps.setBytes(3, archive.getStatusCodes());
+                    ps.setBytes(4, archive.getCheckInMinutes());
+                    ps.setBytes(5, archive.getCheckOutMinutes());
+                    ps.setBytes(6, archive.getWorkingHours());
+                    ps.setString(7, archive.getNotes());
+                });
+        jdbcTemplate.batchUpdate("DELETE FROM attendance WHERE username = ? AND attendance_date >= ? AND attendance_date < ?", deletes);
+    }
+
+    public Optional<List<Attendance>> findArchivedMonth(String username, YearMonth month) {
+        if (!isClosed(month)) {
+            return Optional.empty();
+        }
+        return archiveRepository.findById(new AttendanceMonthArchive.Key(username, month.toString()))
+                .map(AttendanceMonthCodec::decode);
+    }
+
+    // Archived months for the user, newest first (still packed; decode on demand)
+    public List<AttendanceMonthArchive> findArchives(String username) {
+        if (closedMonths.isEmpty()) {
+            return List.of();
+        }
+        return archiveRepository.findByUsernameOrderByMonthDesc(username);
+    }
+
+    // Every archived record for one day, ordered by username
+    public List<Attendance> findArchivedDay(LocalDate date) {
+        if (!isClosed(YearMonth.from(date))) {
+            return List.of();
+        }
+        List<Attendance> rows = new ArrayList<>();
+        for (AttendanceMonthArchive archive : archiveRepository.findByMonthOrderByUsername(YearMonth.from(date).toString())) {
+            Attendance row = AttendanceMonthCodec.decodeDay(archive, date);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    // Hands each user's archive for a closed month to the consumer off a forward-only cursor, ordered by username
+    public void streamArchivedMonth(YearMonth month, Consumer<AttendanceMonthArchive> consumer) {
+        if (!isClosed(month)) {
+            return;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT username, attendance_month, status_codes, check_in_minutes, check_out_minutes, working_hours, notes " +
+                    "FROM attendance_month_archive WHERE attendance_month = ? ORDER BY username",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            ps.setString(1, month.toString());
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            AttendanceMonthArchive archive = new AttendanceMonthArchive();
+            archive.setUsername(rs.getString("username"));
+            archive.setMonth(rs.getString("attendance_month"));
+            archive.setStatusCodes(rs.getBytes("status_codes"));
+            archive.setCheckInMinutes(rs.getBytes("check_in_minutes"));
+            archive.setCheckOutMinutes(rs.getBytes("check_out_minutes"));
+            archive.setWorkingHours(rs.getBytes("working_hours"));
+            archive.setNotes(rs.getString("notes"));
+            consumer.accept(archive);
+        });
+    }
+
+    public void deleteAll() {
+        archiveRepository.deleteAllInBatch();
+        closedMonths.clear();
+    }
+
+    // Inner class for month close results
+    public static class MonthCloseResult {
+        private String month;
+        private int usersArchived;
+        private int usersSkipped;
+        private long rowsArchived;
+
+        public MonthCloseResult(String month) {
+            this.month = month;
+        }
+
+        // Getters
+        public String getMonth() { return month; }
+        public int getUsersArchived() { return usersArchived; }
+        public int getUsersSkipped() { return usersSkipped; }
+        public long getRowsArchived() { return rowsArchived; }
+    }
+}
@@ -0,0 +1,334 @@
+package com.staffmanagement.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staffmanagement.model.Attendance;
+import com.staffmanagement.model.AttendanceChangedEvent;
+import com.staffmanagement.model.AttendanceEvent;
+import com.staffmanagement.model.AttendanceRequest;
+import com.staffmanagement.model.BulkAttendanceResult;
+import com.staffmanagement.model.BulkAttendanceResult.RecordResult;
+import com.staffmanagement.repository.AttendanceJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ingests attendance punches in bulk (badge readers, imports). Punches are
+ * processed in chunks: existing rows for a chunk are resolved with one query,
+ * punches for the same user and day are merged in memory, and the result is
+ * written with batched JDBC inserts and updates in one transaction per chunk.
+ */
+@Service
+public class AttendanceBulkService {
+
+    @Autowired
+    private AttendanceJdbcRepository attendanceJdbcRepository;
+
+    @Autowired
+    private AttendanceCounterService attendanceCounterService;
+
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+
+    @Autowired
+    private AttendanceEventLog attendanceEventLog;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${attendance.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    // Reads a JSON array element by element so the whole payload is never held in memory
+    public BulkAttendanceResult ingestJsonArray(InputStream body) throws IOException {
+        BulkAttendanceResult result = new BulkAttendanceResult();
+        List<JsonNode> chunk = new ArrayList<>(chunkSize);
+        int firstIndex = 0;
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Request body must be a JSON array of attendance punches");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                chunk.add(parser.readValueAsTree());
+                if (chunk.size() == chunkSize) {
+                    processChunk(bindAll(chunk, firstIndex, result), firstIndex, result);
+                    firstIndex += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+        processChunk(bindAll(chunk, firstIndex, result), firstIndex, result);
+        return result;
+    }
+
+    // Reads newline-delimited JSON, one punch per line; blank lines are ignored
+    public BulkAttendanceResult ingestNdjson(InputStream body) throws IOException {
+        BulkAttendanceResult result = new BulkAttendanceResult();
+        List<AttendanceRequest> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        int firstIndex = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(bind(line, index, result));
+                index++;
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, firstIndex, result);
+                    firstIndex = index;
+                    chunk.clear();
+                }
+            }
+        }
+        processChunk(chunk, firstIndex, result);
+        return result;
+    }
+
+    // Ingests punches that are already in memory, e.g. a write-behind flush
+    public BulkAttendanceResult ingest(List<AttendanceRequest> punches) {
+        BulkAttendanceResult result = new BulkAttendanceResult();
+        for (int firstIndex = 0; firstIndex < punches.size(); firstIndex += chunkSize) {
+            List<AttendanceRequest> chunk = punches.subList(firstIndex, Math.min(firstIndex + chunkSize, punches.size()));
+            processChunk(chunk, firstIndex, result);
+        }
+        return result;
+    }
+
+    private List<AttendanceRequest> bindAll(List<JsonNode> nodes, int firstIndex, BulkAttendanceResult result) {
+        List<AttendanceRequest> requests = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            try {
+                requests.add(objectMapper.treeToValue(nodes.get(i), AttendanceRequest.class));
+            } catch (Exception e) {
+                result.addRecord(new RecordResult(firstIndex + i, null, null, RecordResult.FAILED,
+                        "Malformed punch: " + e.getMessage()));
+                requests.add(null);
+            }
+        }
+        return requests;
+    }
+
+    private AttendanceRequest bind(String line, int index, BulkAttendanceResult result) {
+        try {
+            return objectMapper.readValue(line, AttendanceRequest.class);
+        } catch (Exception e) {
+            result.addRecord(new RecordResult(index, null, null, RecordResult.FAILED,
+                    "Malformed punch: " + e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Merges and writes one chunk. Entries that failed to bind are null and
+     * have already been reported.
+     */
+    private void processChunk(List<AttendanceRequest> chunk, int firstIndex, BulkAttendanceResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // Validate and collect the key space for the lookup query
+        Set<String> usernames = new HashSet<>();
+        LocalDate minDate = null;
+        LocalDate maxDate = null;
+        List<Integer> validIndexes = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            AttendanceRequest punch = chunk.get(i);
+            if (punch == null) {
+                continue;
+            }
+            String error = validate(punch);
+            if (error != null) {
+                result.addRecord(new RecordResult(firstIndex + i, punch.getUsername(), punch.getAttendanceDate(),
+                        RecordResult.FAILED, error));
+                continue;
+            }
+            usernames.add(punch.getUsername());
+            LocalDate date = punch.getAttendanceDate();
+            minDate = minDate == null || date.isBefore(minDate) ? date : minDate;
+            maxDate = maxDate == null || date.isAfter(maxDate) ? date : maxDate;
+            validIndexes.add(i);
+        }
+        if (validIndexes.isEmpty()) {
+            return;
+        }
+
+        Map<String, Attendance> existing = new HashMap<>();
+        Map<String, String> previousStatuses = new HashMap<>();
+        for (Attendance attendance : attendanceJdbcRepository.findByUsernamesAndDateRange(usernames, minDate, maxDate)) {
+            String key = key(attendance.getUsername(), attendance.getAttendanceDate());
+            existing.put(key, attendance);
+            previousStatuses.put(key, attendance.getStatus());
+        }
+
+        // Merge punches into one target row per (username, date), preserving submission order
+        Map<String, Attendance> targets = new LinkedHashMap<>();
+        Map<String, List<Integer>> indexesByKey = new HashMap<>();
+        for (int i : validIndexes) {
+            AttendanceRequest punch = chunk.get(i);
+            String key = key(punch.getUsername(), punch.getAttendanceDate());
+            Attendance target = targets.computeIfAbsent(key, k -> {
+                Attendance current = existing.get(k);
+                if (current != null) {
+                    return current;
+                }
+                Attendance created = new Attendance();
+                created.setUsername(punch.getUsername());
+                created.setAttendanceDate(punch.getAttendanceDate());
+                return created;
+            });
+            applyPunch(target, punch);
+            indexesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(firstIndex + i);
+        }
+
+        List<Attendance> inserts = new ArrayList<>();
+        List<Attendance> updates = new ArrayList<>();
+        Map<String, long[]> counterDeltas = new HashMap<>();
+        for (Map.Entry<String, Attendance> entry : targets.entrySet()) {
+            Attendance target = entry.getValue();
+            target.setWorkingHours(AttendanceService.calculateWorkingHours(
+                    target.getCheckInTime(), target.getCheckOutTime(), target.getWorkingHours()));
+            boolean newRow = target.getId() == null;
+            if (newRow) {
+                inserts.add(target);
+            } else {
+                updates.add(target);
+            }
+            AttendanceCounterService.addChange(counterDeltas, target.getUsername(), target.getAttendanceDate(),
+                    previousStatuses.get(entry.getKey()), target.getStatus(), newRow);
+        }
+
+        // The first punch for a day without a row is the one that creates it
+        List<AttendanceEvent> events = new ArrayList<>(attendanceEventLog.isEnabled() ? validIndexes.size() : 0);
+        if (attendanceEventLog.isEnabled()) {
+            Set<String> logged = new HashSet<>();
+            for (int i : validIndexes) {
+                AttendanceEvent event = toEvent(chunk.get(i));
+                String key = key(event.getUsername(), event.getAttendanceDate());
+                event.setCreated(logged.add(key) && !existing.containsKey(key));
+                events.add(event);
+            }
+        }
+
+        String failure = null;
+        try {
+            // Each chunk commits on its own, even when called from inside another transaction
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transaction.executeWithoutResult(status -> {
+                attendanceJdbcRepository.batchInsert(inserts, chunkSize);
+                attendanceJdbcRepository.batchUpdate(updates, chunkSize);
+                attendanceCounterService.applyDeltas(counterDeltas);
+            });
+        } catch (Exception e) {
+            failure = "Batch write failed: " + e.getMessage();
+        }
+        if (failure == null) {
+            // Logged only once the chunk has committed, so a rolled-back chunk leaves no events
+            attendanceEventLog.appendAll(events);
+            Set<LocalDate> dates = new HashSet<>();
+            for (Attendance target : targets.values()) {
+                dates.add(target.getAttendanceDate());
+            }
+            eventPublisher.publishEvent(AttendanceChangedEvent.of(usernames, dates));
+        }
+
+        for (Map.Entry<String, Attendance> entry : targets.entrySet()) {
+            Attendance target = entry.getValue();
+            String outcome = failure != null ? RecordResult.FAILED
+                    : target.getId() == null ? RecordResult.INSERTED : RecordResult.UPDATED;
+            for (int index : indexesByKey.get(entry.getKey())) {
+                result.addRecord(new RecordResult(index, target.getUsername(), target.getAttendanceDate(), outcome, failure));
+            }
+        }
+    }
+
+    private String validate(AttendanceRequest punch) {
+        if (punch.getUsername() == null || punch.getUsername().trim().isEmpty()) {
+            return "Username is required";
+        }
+        if (punch.getAttendanceDate() == null) {
+            return "Attendance date is required";
+        }
+        if (attendanceArchiveService.isClosed(YearMonth.from(punch.getAttendanceDate()))) {
+            return "Attendance month " + YearMonth.from(punch.getAttendanceDate()) + " is closed";
+        }
+        if (punch.getCheckInTime() == null && punch.getCheckOutTime() == null
+                && (punch.getStatus() == null || punch.getStatus().trim().isEmpty())) {
+            return "Punch must carry a check-in time, check-out time or status";
+        }
+        return null;
+    }
+
+    // Same field precedence as manual attendance: only supplied values overwrite the row
+    private void applyPunch(Attendance target, AttendanceRequest punch) {
+        if (punch.getCheckInTime() != null) {
+            target.setCheckInTime(punch.getCheckInTime());
+        }
+        if (punch.getCheckOutTime() != null) {
+            target.setCheckOutTime(punch.getCheckOutTime());
+        }
+        if (punch.getStatus() != null) {
+            target.setStatus(punch.getStatus());
+        } else if (target.getStatus() == null && target.getCheckInTime() != null) {
+            target.setStatus("PRESENT");
+        }
+        if (punch.getNotes() != null) {
+            target.setNotes(punch.getNotes());
+        }
+    }
+
+    // A punch carrying only a check-in (or only a check-out) is logged as one; anything else is an override
+    private static AttendanceEvent toEvent(AttendanceRequest punch) {
+        boolean plainStatus = punch.getStatus() == null || "PRESENT".equals(punch.getStatus());
+        String type = AttendanceEvent.MANUAL_OVERRIDE;
+        if (punch.getNotes() == null && punch.getCheckInTime() != null && punch.getCheckOutTime() == null && plainStatus) {
+            type = AttendanceEvent.CHECK_IN;
+        } else if (punch.getNotes() == null && punch.getCheckInTime() == null && punch.getCheckOutTime() != null
+                && punch.getStatus() == null) {
+            type = AttendanceEvent.CHECK_OUT;
+        }
+        AttendanceEvent event = new AttendanceEvent(type, punch.getUsername(), punch.getAttendanceDate());
+        event.setCheckInTime(punch.getCheckInTime());
+        event.setCheckOutTime(punch.getCheckOutTime());
+        event.setStatus(punch.getStatus());
+        event.setNotes(punch.getNotes());
+        return event;
+    }
+
+    private static String key(String username, LocalDate date) {
+        return username + '|' + date;
+    }
+}
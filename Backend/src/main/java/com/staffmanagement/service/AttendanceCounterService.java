@@ -0,0 +1,215 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.AttendanceCounter;
+import com.staffmanagement.repository.AttendanceCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the attendance_counters table in step with the attendance table so
+ * statistics are a primary-key lookup instead of a scan of the user's
+ * history. Writers report each row change as (old status, new status); the
+ * rebuild methods recompute the counters from the raw rows and the month archive.
+ */
+@Service
+public class AttendanceCounterService {
+
+    // Delta layout: total, present, absent, half day, leave (same as AttendanceMonthCodec.countStatuses)
+    private static final int TOTAL = 0;
+    private static final int SLOTS = 5;
+    private static final int ARCHIVE_DELTA_BATCH = 2000;
+
+    private static final String INCREMENT_SQL =
+            "UPDATE attendance_counters SET total_days = total_days + ?, present_days = present_days + ?, " +
+            "absent_days = absent_days + ?, half_days = half_days + ?, leave_days = leave_days + ? " +
+            "WHERE username = ? AND period = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO attendance_counters (username, period, total_days, present_days, absent_days, half_days, leave_days) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String REBUILD_SELECT =
+            "SELECT username, %s, COUNT(*), " +
+            "SUM(CASE WHEN status = 'PRESENT' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN status = 'ABSENT' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN status = 'HALF_DAY' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN status = 'LEAVE' THEN 1 ELSE 0 END) " +
+            "FROM attendance %s GROUP BY username%s";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceCounterRepository attendanceCounterRepository;
+
+    public Optional<AttendanceCounter> getCounter(String username, String period) {
+        return attendanceCounterRepository.findById(new AttendanceCounter.Key(username, period));
+    }
+
+    public static String periodOf(LocalDate date) {
+        return YearMonth.from(date).toString();
+    }
+
+    /**
+     * Records one row change. A null old status with {@code newRow} set means
+     * the row was inserted.
+     */
+    public void recordChange(String username, LocalDate date, String oldStatus, String newStatus, boolean newRow) {
+        Map<String, long[]> deltas = new HashMap<>();
+        addChange(deltas, username, date, oldStatus, newStatus, newRow);
+        applyDeltas(deltas);
+    }
+
+    // Accumulates a row change into a delta map keyed by counter row, for batched application
+    public static void addChange(Map<String, long[]> deltas, String username, LocalDate date,
+                                 String oldStatus, String newStatus, boolean newRow) {
+        long[] delta = new long[SLOTS];
+        if (newRow) {
+            delta[TOTAL] = 1;
+        } else {
+            int oldSlot = slotOf(oldStatus);
+            if (oldSlot > 0) {
+                delta[oldSlot]--;
+            }
+        }
+        int newSlot = slotOf(newStatus);
+        if (newSlot > 0) {
+            delta[newSlot]++;
+        }
+        if (isZero(delta)) {
+            return;
+        }
+        merge(deltas, username + '|' + AttendanceCounter.ALL_TIME, delta);
+        merge(deltas, username + '|' + periodOf(date), delta);
+    }
+
+    public void applyDeltas(Map<String, long[]> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(deltas.keySet());
+        List<Object[]> args = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            args.add(incrementArgs(key, deltas.get(key)));
+        }
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT_SQL, args);
+
+        // Counter rows that do not exist yet are created; a concurrent creator wins and we increment instead
+        for (int i = 0; i < keys.size(); i++) {
+            if (updated[i] != 0) {
+                continue;
+            }
+            String key = keys.get(i);
+            long[] delta = deltas.get(key);
+            int split = key.lastIndexOf('|');
+            try {
+                jdbcTemplate.update(INSERT_SQL, key.substring(0, split), key.substring(split + 1),
+                        delta[0], delta[1], delta[2], delta[3], delta[4]);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(INCREMENT_SQL, incrementArgs(key, delta));
+            }
+        }
+    }
+
+    // Recomputes every counter from the attendance table and the closed-month archive
+    @Transactional
+    public void rebuildAll() {
+        jdbcTemplate.update("DELETE FROM attendance_counters");
+        jdbcTemplate.update("INSERT INTO attendance_counters (username, period, total_days, present_days, absent_days, half_days, leave_days) " +
+                String.format(REBUILD_SELECT, "'" + AttendanceCounter.ALL_TIME + "'", "", ""));
+        jdbcTemplate.update("INSERT INTO attendance_counters (username, period, total_days, present_days, absent_days, half_days, leave_days) " +
+                String.format(REBUILD_SELECT, "FORMATDATETIME(attendance_date, 'yyyy-MM')", "",
+                        ", FORMATDATETIME(attendance_date, 'yyyy-MM')"));
+        addArchivedCounts(null);
+    }
+
+    // Recomputes one user's counters from the attendance table and the closed-month archive
+    @Transactional
+    public void rebuildUser(String username) {
+        jdbcTemplate.update("DELETE FROM attendance_counters WHERE username = ?", username);
+        jdbcTemplate.update("INSERT INTO attendance_counters (username, period, total_days, present_days, absent_days, half_days, leave_days) " +
+                String.format(REBUILD_SELECT, "'" + AttendanceCounter.ALL_TIME + "'", "WHERE username = ?", ""), username);
+        jdbcTemplate.update("INSERT INTO attendance_counters (username, period, total_days, present_days, absent_days, half_days, leave_days) " +
+                String.format(REBUILD_SELECT, "FORMATDATETIME(attendance_date, 'yyyy-MM')", "WHERE username = ?",
+                        ", FORMATDATETIME(attendance_date, 'yyyy-MM')"), username);
+        addArchivedCounts(username);
+    }
+    
+    // Closed months have no raw rows; their counts come from the packed status codes
+    private void addArchivedCounts(String username) {
+        Map<String, long[]> deltas = new HashMap<>();
+        RowCallbackHandler handler = rs -> {
+            long[] counts = AttendanceMonthCodec.countStatuses(rs.getBytes("status_codes"));
+            String archivedUser = rs.getString("username");
+            merge(deltas, archivedUser + '|' + AttendanceCounter.ALL_TIME, counts);
+            merge(deltas, archivedUser + '|' + rs.getString("attendance_month"), counts);
+            if (deltas.size() >= ARCHIVE_DELTA_BATCH) {
+                applyDeltas(deltas);
+                deltas.clear();
+            }
+        };
+        String sql = "SELECT username, attendance_month, status_codes FROM attendance_month_archive";
+        if (username == null) {
+            jdbcTemplate.query(sql, handler);
+        } else {
+            jdbcTemplate.query(sql + " WHERE username = ?", handler, username);
+        }
+        applyDeltas(deltas);
+    }
+
+    public void deleteAll() {
+        attendanceCounterRepository.deleteAllInBatch();
+    }
+
+    private static Object[] incrementArgs(String key, long[] delta) {
+        int split = key.lastIndexOf('|');
+        return new Object[] { delta[0], delta[1], delta[2], delta[3], delta[4],
+                key.substring(0, split), key.substring(split + 1) };
+    }
+
+    private static int slotOf(String status) {
+        if (status == null) {
+            return -1;
+        }
+        switch (status) {
+            case "PRESENT":
+                return 1;
+            case "ABSENT":
+                return 2;
+            case "HALF_DAY":
+                return 3;
+            case "LEAVE":
+                return 4;
+            default:
+                return -1;
+        }
+    }
+
+    private static void merge(Map<String, long[]> deltas, String key, long[] delta) {
+        long[] current = deltas.computeIfAbsent(key, k -> new long[SLOTS]);
+        for (int i = 0; i < SLOTS; i++) {
+            current[i] += delta[i];
+        }
+    }
+
+    private static boolean isZero(long[] delta) {
+        for (long value : delta) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,467 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.Attendance;
+import com.staffmanagement.model.AttendanceChangedEvent;
+import com.staffmanagement.model.AttendanceEvent;
+import com.staffmanagement.repository.AttendanceJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Append-only log of attendance events (check-in, check-out, manual
+ * override), written sequentially into a memory-mapped file. The attendance
+ * table is the projection of this log: it is still updated with each write so
+ * reads stay cheap, and {@link #replay()} rebuilds it from the log.
+ *
+ * Events are appended only after the attendance write commits, so the log
+ * never holds an event for a write that was rolled back. An append that fails
+ * (or a crash between the commit and the append) leaves a committed write
+ * without its event; failures are logged, and replay rebuilds the row
+ * without that write.
+ *
+ * Record layout: a 4-byte body length followed by the body. The length is
+ * written after the body, so a record torn by a crash reads as length 0 and
+ * marks the end of the log.
+ */
+@Component
+public class AttendanceEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceEventLog.class);
+
+    private static final String[] TYPES = { null, AttendanceEvent.CHECK_IN, AttendanceEvent.CHECK_OUT, AttendanceEvent.MANUAL_OVERRIDE };
+    private static final long NO_TIME = -1;
+    private static final int REPLAY_BATCH = 1000;
+    private static final int CREATED_FLAG = 0x80;
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    @Autowired
+    private AttendanceJdbcRepository attendanceJdbcRepository;
+
+    @Autowired
+    private AttendanceCounterService attendanceCounterService;
+
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${attendance.event-log.enabled:false}")
+    private boolean enabled;
+
+    @Value("${attendance.event-log.path:data/attendance-events.log}")
+    private String logPath;
+
+    @Value("${attendance.event-log.region-size-mb:16}")
+    private int regionSizeMb;
+
+    @Value("${attendance.event-log.sync:true}")
+    private boolean sync;
+
+    // Guarded by this
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long nextSequence;
+
+    // End of the last complete record; readers never look past it
+    private volatile long committedEnd;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path path = Paths.get(logPath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        long[] lastSequence = { 0 };
+        long end = Files.exists(path) ? scan(path, Long.MAX_VALUE, event -> {
+            lastSequence[0] = event.getSequence();
+            return true;
+        }) : 0;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        nextSequence = lastSequence[0] + 1;
+        committedEnd = end;
+        mapRegion(end, 0);
+        log.info("Attendance event log {} opened at offset {}, next sequence {}", path, end, nextSequence);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends the event once the current transaction has committed, or right
+     * away when there is none. Nothing is appended when it rolls back.
+     */
+    public void record(AttendanceEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    appendAll(List.of(event));
+                }
+            });
+        } else {
+            appendAll(List.of(event));
+        }
+    }
+
+    // Appends events of writes that have already committed; the writes stand if the append fails, so it is only logged
+    public void appendAll(List<AttendanceEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+        try {
+            append(events);
+        } catch (IOException | RuntimeException e) {
+            AttendanceEvent first = events.get(0);
+            log.error("Could not append {} attendance events of committed writes, starting with {} of {} on {}: {}",
+                    events.size(), first.getType(), first.getUsername(), first.getAttendanceDate(), e.getMessage());
+        }
+    }
+
+    /**
+     * One page of events in log order, optionally narrowed to one user and
+     * day: at most {@code limit} events with a sequence after
+     * {@code afterSequence}. Pass the last sequence of a page to get the next.
+     */
+    public List<AttendanceEvent> findEvents(String username, LocalDate date, long afterSequence, int limit) throws IOException {
+        requireEnabled();
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<AttendanceEvent> events = new ArrayList<>(Math.min(pageSize, 256));
+        scan(Paths.get(logPath), committedEnd, event -> {
+            if (event.getSequence() > afterSequence
+                    && (username == null || username.equals(event.getUsername()))
+                    && (date == null || date.equals(event.getAttendanceDate()))) {
+                events.add(event);
+            }
+            return events.size() < pageSize;
+        });
+        return events;
+    }
+
+    /**
+     * Rewrites the attendance row of every (username, date) whose full
+     * history is in the log, i.e. whose first logged event created the row,
+     * by folding its events in order; then recomputes the counters. Rows are
+     * updated in place (or inserted when missing) and never deleted. Keys
+     * whose creating event predates the log are reported and left as they
+     * are, as are days in closed months, which belong to the archive.
+     */
+    public ReplayResult replay() throws IOException {
+        requireEnabled();
+        ReplayResult result = new ReplayResult();
+        Map<String, Attendance> rows = new LinkedHashMap<>();
+        Map<String, Boolean> complete = new HashMap<>();
+        scan(Paths.get(logPath), committedEnd, event -> {
+            result.eventsRead++;
+            if (attendanceArchiveService.isClosed(YearMonth.from(event.getAttendanceDate()))) {
+                result.eventsSkipped++;
+                return true;
+            }
+            String key = event.getUsername() + '|' + event.getAttendanceDate();
+            if (!complete.computeIfAbsent(key, k -> event.isCreated())) {
+                result.eventsSkipped++;
+                return true;
+            }
+            Attendance row = rows.computeIfAbsent(key, k -> {
+                Attendance created = new Attendance();
+                created.setUsername(event.getUsername());
+                created.setAttendanceDate(event.getAttendanceDate());
+                return created;
+            });
+            project(row, event);
+            return true;
+        });
+        result.keysSkipped = complete.size() - rows.size();
+
+        List<Attendance> projected = new ArrayList<>(rows.values());
+        for (int from = 0; from < projected.size(); from += REPLAY_BATCH) {
+            List<Attendance> batch = projected.subList(from, Math.min(from + REPLAY_BATCH, projected.size()));
+            List<Object[]> values = new ArrayList<>(batch.size());
+            for (Attendance row : batch) {
+                values.add(new Object[] {
+                        row.getCheckInTime() != null ? Time.valueOf(row.getCheckInTime()) : null,
+                        row.getCheckOutTime() != null ? Time.valueOf(row.getCheckOutTime()) : null,
+                        row.getStatus(), row.getWorkingHours(), row.getNotes(),
+                        row.getUsername(), Date.valueOf(row.getAttendanceDate()) });
+            }
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                int[] updated = jdbcTemplate.batchUpdate("UPDATE attendance SET check_in_time = ?, check_out_time = ?, "
+                        + "status = ?, working_hours = ?, notes = ? WHERE username = ? AND attendance_date = ?", values);
+                List<Attendance> missing = new ArrayList<>();
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] == 0) {
+                        missing.add(batch.get(i));
+                    }
+                }
+                attendanceJdbcRepository.batchInsert(missing, REPLAY_BATCH);
+            });
+        }
+        result.rowsRebuilt = projected.size();
+        attendanceCounterService.rebuildAll();
+        eventPublisher.publishEvent(AttendanceChangedEvent.allAttendance());
+        return result;
+    }
+
+    /**
+     * Applies one event to its row. Only the fields the event carries are
+     * written, the same precedence as manual attendance and bulk punches.
+     */
+    public static void project(Attendance row, AttendanceEvent event) {
+        if (event.getCheckInTime() != null) {
+            row.setCheckInTime(event.getCheckInTime());
+        }
+        if (event.getCheckOutTime() != null) {
+            row.setCheckOutTime(event.getCheckOutTime());
+        }
+        if (event.getStatus() != null) {
+            row.setStatus(event.getStatus());
+        } else if (row.getStatus() == null && row.getCheckInTime() != null) {
+            row.setStatus("PRESENT");
+        }
+        if (event.getNotes() != null) {
+            row.setNotes(event.getNotes());
+        }
+        row.setWorkingHours(AttendanceService.calculateWorkingHours(
+                row.getCheckInTime(), row.getCheckOutTime(), row.getWorkingHours()));
+    }
+
+    // Discards the whole log (database reset)
+    public synchronized void clear() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        channel.truncate(0);
+        committedEnd = 0;
+        nextSequence = 1;
+        mapRegion(0, 0);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        region.force();
+        channel.close();
+    }
+
+    // Writes the batch into one region and publishes it only once it is forced, so a failed batch leaves no records
+    private synchronized void append(List<AttendanceEvent> events) throws IOException {
+        List<byte[]> bodies = new ArrayList<>(events.size());
+        int size = 0;
+        long sequence = nextSequence;
+        Instant now = Instant.now();
+        for (AttendanceEvent event : events) {
+            event.setSequence(sequence++);
+            event.setRecordedAt(now);
+            byte[] body = encode(event);
+            bodies.add(body);
+            size += 4 + body.length;
+        }
+
+        long start = committedEnd;
+        if (start + size > regionStart + region.capacity()) {
+            mapRegion(start, size);
+        }
+        int offset = (int) (start - regionStart);
+        for (byte[] body : bodies) {
+            region.put(offset + 4, body);
+            region.putInt(offset, body.length);
+            offset += 4 + body.length;
+        }
+        if (sync) {
+            try {
+                region.force();
+            } catch (UncheckedIOException e) {
+                // Erase the batch; the next append reuses its space
+                region.put((int) (start - regionStart), new byte[size]);
+                throw e.getCause();
+            }
+        }
+        committedEnd = start + size;
+        nextSequence = sequence;
+    }
+
+    // Maps a fresh region starting at the append position; mapping past the end grows the file with zeros
+    private void mapRegion(long position, int minimumSize) throws IOException {
+        if (region != null) {
+            region.force();
+        }
+        long size = Math.max((long) regionSizeMb << 20, minimumSize);
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        regionStart = position;
+    }
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new IllegalStateException("Attendance event log is disabled (attendance.event-log.enabled=false)");
+        }
+    }
+
+    /**
+     * Reads records up to the limit, the first empty length, or until the
+     * consumer returns false; returns the offset after the last record read.
+     */
+    private static long scan(Path path, long limit, Predicate<AttendanceEvent> consumer) throws IOException {
+        long position = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (position + 4 <= limit) {
+                int length;
+                byte[] body;
+                try {
+                    length = in.readInt();
+                    if (length <= 0) {
+                        break;
+                    }
+                    body = new byte[length];
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                position += 4 + length;
+                if (!consumer.test(decode(body))) {
+                    break;
+                }
+            }
+        }
+        return position;
+    }
+
+    private static byte[] encode(AttendanceEvent event) {
+        byte[] username = bytes(event.getUsername());
+        byte[] status = bytes(event.getStatus());
+        byte[] notes = bytes(event.getNotes());
+        ByteBuffer body = ByteBuffer.allocate(8 + 8 + 1 + 4 + 8 + 8 + 3 * 4
+                + length(username) + length(status) + length(notes));
+        body.putLong(event.getSequence());
+        body.putLong(event.getRecordedAt().toEpochMilli());
+        body.put((byte) (typeCode(event.getType()) | (event.isCreated() ? CREATED_FLAG : 0)));
+        body.putInt((int) event.getAttendanceDate().toEpochDay());
+        body.putLong(event.getCheckInTime() != null ? event.getCheckInTime().toNanoOfDay() : NO_TIME);
+        body.putLong(event.getCheckOutTime() != null ? event.getCheckOutTime().toNanoOfDay() : NO_TIME);
+        putBytes(body, username);
+        putBytes(body, status);
+        putBytes(body, notes);
+        return body.array();
+    }
+
+    private static AttendanceEvent decode(byte[] bytes) {
+        ByteBuffer body = ByteBuffer.wrap(bytes);
+        AttendanceEvent event = new AttendanceEvent();
+        event.setSequence(body.getLong());
+        event.setRecordedAt(Instant.ofEpochMilli(body.getLong()));
+        int type = body.get() & 0xFF;
+        event.setType(TYPES[type & ~CREATED_FLAG]);
+        event.setCreated((type & CREATED_FLAG) != 0);
+        event.setAttendanceDate(LocalDate.ofEpochDay(body.getInt()));
+        long checkIn = body.getLong();
+        event.setCheckInTime(checkIn != NO_TIME ? LocalTime.ofNanoOfDay(checkIn) : null);
+        long checkOut = body.getLong();
+        event.setCheckOutTime(checkOut != NO_TIME ? LocalTime.ofNanoOfDay(checkOut) : null);
+        event.setUsername(getString(body));
+        event.setStatus(getString(body));
+        event.setNotes(getString(body));
+        return event;
+    }
+
+    private static int typeCode(String type) {
+        for (int code = 1; code < TYPES.length; code++) {
+            if (TYPES[code].equals(type)) {
+                return code;
+            }
+        }
+        throw new IllegalArgumentException("Unknown attendance event type: " + type);
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    private static void putBytes(ByteBuffer body, byte[] value) {
+        if (value == null) {
+            body.putInt(-1);
+        } else {
+            body.putInt(value.length);
+            body.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        body.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    // Inner class for replay results
+    public static class ReplayResult {
+        private long eventsRead;
+        private long eventsSkipped;
+        private long keysSkipped;
+        private long rowsRebuilt;
+
+        // Getters
+        public long getEventsRead() { return eventsRead; }
+        public long getEventsSkipped() { return eventsSkipped; }
+        public long getKeysSkipped() { return keysSkipped; }
+        public long getRowsRebuilt() { return rowsRebuilt; }
+    }
+}
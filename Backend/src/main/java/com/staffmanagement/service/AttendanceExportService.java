@@ -0,0 +1,196 @@
+package com.staffmanagement.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staffmanagement.model.Attendance;
+import com.staffmanagement.repository.AttendanceJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes every attendance record in a date range as CSV or NDJSON straight
+ * from forward-only cursors, one month at a time, so memory use does not
+ * depend on the size of the range. Within a month, records are ordered by
+ * username and date; closed months are read from the archive and merged
+ * with the raw rows of users that could not be archived.
+ */
+@Service
+public class AttendanceExportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String CSV_HEADER = "username,attendance_date,check_in_time,check_out_time,status,working_hours,notes\n";
+    private static final Comparator<Attendance> ROW_ORDER =
+            Comparator.comparing(Attendance::getUsername).thenComparing(Attendance::getAttendanceDate);
+
+    @Autowired
+    private AttendanceJdbcRepository attendanceJdbcRepository;
+
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Checked before the response starts, so a bad request still gets a normal error body
+    public void validate(LocalDate from, LocalDate to, String format) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Export range start " + from + " is after its end " + to);
+        }
+        if (!CSV.equals(format) && !NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format + " (use csv or ndjson)");
+        }
+    }
+
+    public void export(LocalDate from, LocalDate to, String format, OutputStream out) throws IOException {
+        validate(from, to, format);
+        RowWriter writer = CSV.equals(format) ? new CsvRowWriter(out) : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(out));
+        try {
+            for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+                LocalDate start = from.isAfter(month.atDay(1)) ? from : month.atDay(1);
+                LocalDate end = to.isBefore(month.atEndOfMonth()) ? to : month.atEndOfMonth();
+                if (!attendanceArchiveService.isClosed(month)) {
+                    attendanceJdbcRepository.streamByDateRange(start, end, FETCH_SIZE, row -> writeRow(writer, row));
+                    continue;
+                }
+
+                // A closed month keeps raw rows only for users that could not be archived; merge them in by key
+                List<Attendance> raw = new ArrayList<>();
+                attendanceJdbcRepository.streamByDateRange(start, end, FETCH_SIZE, raw::add);
+                int[] next = { 0 };
+                attendanceArchiveService.streamArchivedMonth(month, archive -> {
+                    for (Attendance day : AttendanceMonthCodec.decode(archive)) {
+                        if (!day.getAttendanceDate().isBefore(start) && !day.getAttendanceDate().isAfter(end)) {
+                            while (next[0] < raw.size() && ROW_ORDER.compare(raw.get(next[0]), day) < 0) {
+                                writeRow(writer, raw.get(next[0]++));
+                            }
+                            writeRow(writer, day);
+                        }
+                    }
+                });
+                for (int i = next[0]; i < raw.size(); i++) {
+                    writeRow(writer, raw.get(i));
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+
+    private static void writeRow(RowWriter writer, Attendance row) {
+        try {
+            writer.write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String format(LocalTime time) {
+        return time != null ? DateTimeFormatter.ISO_LOCAL_TIME.format(time) : null;
+    }
+
+    private interface RowWriter {
+        void write(Attendance row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(Attendance row) throws IOException {
+            field(row.getUsername());
+            writer.write(',');
+            writer.write(row.getAttendanceDate().toString());
+            writer.write(',');
+            field(format(row.getCheckInTime()));
+            writer.write(',');
+            field(format(row.getCheckOutTime()));
+            writer.write(',');
+            field(row.getStatus());
+            writer.write(',');
+            if (row.getWorkingHours() != null) {
+                writer.write(row.getWorkingHours().toString());
+            }
+            writer.write(',');
+            field(row.getNotes());
+            writer.write('\n');
+        }
+
+        // RFC 4180 quoting, only when the value needs it
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    // Same field names as AttendanceResponse; written field by field to avoid a response object per row
+    private static class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Attendance row) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("username", row.getUsername());
+            generator.writeStringField("attendanceDate", row.getAttendanceDate().toString());
+            generator.writeStringField("checkInTime", format(row.getCheckInTime()));
+            generator.writeStringField("checkOutTime", format(row.getCheckOutTime()));
+            generator.writeStringField("status", row.getStatus());
+            if (row.getWorkingHours() != null) {
+                generator.writeNumberField("workingHours", row.getWorkingHours());
+            } else {
+                generator.writeNullField("workingHours");
+            }
+            generator.writeStringField("notes", row.getNotes());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
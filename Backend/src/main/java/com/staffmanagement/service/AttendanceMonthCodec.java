@@ -0,0 +1,242 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.Attendance;
+import com.staffmanagement.model.AttendanceMonthArchive;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bit-packed encoding of one user's attendance for one month. Day N of the
+ * month occupies slot N-1 in each column:
+ *
+ *   status_codes      3 bits per day  (0 = no record, see STATUSES)
+ *   check_in_minutes  11 bits per day (minute of day, 2047 = none)
+ *   check_out_minutes 11 bits per day (minute of day, 2047 = none)
+ *   working_hours     12 bits per day (hundredths of an hour, 4095 = none)
+ *
+ * Times keep minute precision; working hours are stored as recorded so they
+ * decode exactly. Notes, which are rare, are kept as escaped "day\tnote" lines.
+ */
+public final class AttendanceMonthCodec {
+
+    private static final int DAYS = 31;
+    private static final int STATUS_BITS = 3;
+    private static final int MINUTE_BITS = 11;
+    private static final int HOURS_BITS = 12;
+    private static final int NO_MINUTE = (1 << MINUTE_BITS) - 1;
+    private static final int NO_HOURS = (1 << HOURS_BITS) - 1;
+
+    // Index is the stored code; code 0 means there was no record that day
+    private static final String[] STATUSES = { null, "PRESENT", "ABSENT", "HALF_DAY", "LEAVE", null };
+    private static final int NULL_STATUS = 5;
+
+    private AttendanceMonthCodec() {}
+
+    /**
+     * Packs the month's rows, or returns null when a row cannot be represented
+     * exactly (an unknown status, or working hours outside 0-40.94) or the
+     * month's notes do not fit the notes column.
+     */
+    public static AttendanceMonthArchive encode(String username, YearMonth month, List<Attendance> rows) {
+        byte[] statuses = new byte[bytesFor(STATUS_BITS)];
+        byte[] checkIns = filled(MINUTE_BITS, NO_MINUTE);
+        byte[] checkOuts = filled(MINUTE_BITS, NO_MINUTE);
+        byte[] hours = filled(HOURS_BITS, NO_HOURS);
+        StringBuilder notes = new StringBuilder();
+
+        for (Attendance row : rows) {
+            int slot = row.getAttendanceDate().getDayOfMonth() - 1;
+            int code = statusCode(row.getStatus());
+            if (code < 0) {
+                return null;
+            }
+            writeBits(statuses, slot * STATUS_BITS, STATUS_BITS, code);
+            if (row.getCheckInTime() != null) {
+                writeBits(checkIns, slot * MINUTE_BITS, MINUTE_BITS, minuteOfDay(row.getCheckInTime()));
+            }
+            if (row.getCheckOutTime() != null) {
+                writeBits(checkOuts, slot * MINUTE_BITS, MINUTE_BITS, minuteOfDay(row.getCheckOutTime()));
+            }
+            if (row.getWorkingHours() != null) {
+                long hundredths = Math.round(row.getWorkingHours() * 100.0);
+                if (hundredths < 0 || hundredths >= NO_HOURS || Math.abs(hundredths - row.getWorkingHours() * 100.0) > 1e-6) {
+                    return null;
+                }
+                writeBits(hours, slot * HOURS_BITS, HOURS_BITS, (int) hundredths);
+            }
+            if (row.getNotes() != null) {
+                notes.append(slot + 1).append('\t').append(escape(row.getNotes())).append('\n');
+            }
+        }
+
+        if (notes.length() > AttendanceMonthArchive.NOTES_LENGTH) {
+            return null;
+        }
+
+        AttendanceMonthArchive archive = new AttendanceMonthArchive();
+        archive.setUsername(username);
+        archive.setMonth(month.toString());
+        archive.setStatusCodes(statuses);
+        archive.setCheckInMinutes(checkIns);
+        archive.setCheckOutMinutes(checkOuts);
+        archive.setWorkingHours(hours);
+        archive.setNotes(notes.length() > 0 ? notes.toString() : null);
+        return archive;
+    }
+
+    // Rebuilds the month's rows in ascending date order; decoded rows have no id
+    public static List<Attendance> decode(AttendanceMonthArchive archive) {
+        YearMonth month = YearMonth.parse(archive.getMonth());
+        String[] notes = decodeNotes(archive.getNotes());
+        List<Attendance> rows = new ArrayList<>();
+        for (int slot = 0; slot < month.lengthOfMonth(); slot++) {
+            Attendance row = decodeSlot(archive, month, slot, notes);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    // Decodes a single day, or returns null when there was no record that day
+    public static Attendance decodeDay(AttendanceMonthArchive archive, LocalDate date) {
+        YearMonth month = YearMonth.parse(archive.getMonth());
+        if (!YearMonth.from(date).equals(month)) {
+            return null;
+        }
+        return decodeSlot(archive, month, date.getDayOfMonth() - 1, decodeNotes(archive.getNotes()));
+    }
+
+    // Counts per status as {total, present, absent, half day, leave}, without decoding the other columns
+    public static long[] countStatuses(byte[] statusCodes) {
+        long[] counts = new long[5];
+        for (int slot = 0; slot < DAYS; slot++) {
+            int code = readBits(statusCodes, slot * STATUS_BITS, STATUS_BITS);
+            if (code == 0) {
+                continue;
+            }
+            counts[0]++;
+            if (code < NULL_STATUS) {
+                counts[code]++;
+            }
+        }
+        return counts;
+    }
+
+    // Hundredths of an hour worked beyond the standard day, summed over the month's days with hours recorded
+    public static long overtimeHundredths(byte[] workingHours, long standardHundredths) {
+        long overtime = 0;
+        for (int slot = 0; slot < DAYS; slot++) {
+            int hundredths = readBits(workingHours, slot * HOURS_BITS, HOURS_BITS);
+            if (hundredths != NO_HOURS && hundredths > standardHundredths) {
+                overtime += hundredths - standardHundredths;
+            }
+        }
+        return overtime;
+    }
+
+    private static Attendance decodeSlot(AttendanceMonthArchive archive, YearMonth month, int slot, String[] notes) {
+        int code = readBits(archive.getStatusCodes(), slot * STATUS_BITS, STATUS_BITS);
+        if (code == 0) {
+            return null;
+        }
+        Attendance row = new Attendance();
+        row.setUsername(archive.getUsername());
+        row.setAttendanceDate(month.atDay(slot + 1));
+        row.setStatus(STATUSES[code]);
+        int checkIn = readBits(archive.getCheckInMinutes(), slot * MINUTE_BITS, MINUTE_BITS);
+        row.setCheckInTime(checkIn != NO_MINUTE ? LocalTime.of(checkIn / 60, checkIn % 60) : null);
+        int checkOut = readBits(archive.getCheckOutMinutes(), slot * MINUTE_BITS, MINUTE_BITS);
+        row.setCheckOutTime(checkOut != NO_MINUTE ? LocalTime.of(checkOut / 60, checkOut % 60) : null);
+        int hundredths = readBits(archive.getWorkingHours(), slot * HOURS_BITS, HOURS_BITS);
+        row.setWorkingHours(hundredths != NO_HOURS ? hundredths / 100.0 : null);
+        row.setNotes(notes[slot]);
+        return row;
+    }
+
+    private static int statusCode(String status) {
+        if (status == null) {
+            return NULL_STATUS;
+        }
+        for (int code = 1; code < NULL_STATUS; code++) {
+            if (STATUSES[code].equals(status)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int bytesFor(int bitsPerDay) {
+        return (DAYS * bitsPerDay + 7) / 8;
+    }
+
+    private static byte[] filled(int bitsPerDay, int value) {
+        byte[] buffer = new byte[bytesFor(bitsPerDay)];
+        for (int slot = 0; slot < DAYS; slot++) {
+            writeBits(buffer, slot * bitsPerDay, bitsPerDay, value);
+        }
+        return buffer;
+    }
+
+    // Big-endian bit order: bit 0 is the high bit of byte 0
+    private static void writeBits(byte[] buffer, int bitOffset, int width, int value) {
+        for (int i = 0; i < width; i++) {
+            int bit = bitOffset + i;
+            int mask = 0x80 >>> (bit & 7);
+            if (((value >>> (width - 1 - i)) & 1) != 0) {
+                buffer[bit >>> 3] |= (byte) mask;
+            } else {
+                buffer[bit >>> 3] &= (byte) ~mask;
+            }
+        }
+    }
+
+    private static int readBits(byte[] buffer, int bitOffset, int width) {
+        int value = 0;
+        for (int i = 0; i < width; i++) {
+            int bit = bitOffset + i;
+            value = (value << 1) | ((buffer[bit >>> 3] >>> (7 - (bit & 7))) & 1);
+        }
+        return value;
+    }
+
+    private static String[] decodeNotes(String encoded) {
+        String[] notes = new String[DAYS];
+        if (encoded == null) {
+            return notes;
+        }
+        for (String line : encoded.split("\n")) {
+            int tab = line.indexOf('\t');
+            if (tab > 0) {
+                notes[Integer.parseInt(line.substring(0, tab)) - 1] = unescape(line.substring(tab + 1));
+            }
+        }
+        return notes;
+    }
+
+    private static String escape(String note) {
+        return note.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String unescape(String note) {
+        StringBuilder out = new StringBuilder(note.length());
+        for (int i = 0; i < note.length(); i++) {
+            char c = note.charAt(i);
+            if (c == '\\' && i + 1 < note.length()) {
+                char next = note.charAt(++i);
+                out.append(next == 'n' ? '\n' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
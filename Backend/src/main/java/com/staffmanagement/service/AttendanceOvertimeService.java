@@ -0,0 +1,127 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.AttendanceChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Monthly overtime per user derived from recorded working hours: every
+ * day's hours beyond the standard working day. A month is computed with one
+ * grouped query over the attendance table (plus the packed archives of a
+ * closed month) and cached until attendance in that month changes, so a
+ * payroll run reads attendance once.
+ */
+@Service
+public class AttendanceOvertimeService {
+
+    private static final int MAX_MONTHS = 12;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Value("${payroll.overtime.standard-daily-hours:8}")
+    private BigDecimal standardDailyHours;
+
+    // Least recently used first; guarded by this
+    private final Map<YearMonth, MonthOvertime> months = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Bumped by every eviction, so a month loaded across an attendance write is not cached
+    private long generation;
+
+    public MonthOvertime getMonth(YearMonth month) {
+        long observed;
+        synchronized (this) {
+            MonthOvertime cached = months.get(month);
+            if (cached != null) {
+                return cached;
+            }
+            observed = generation;
+        }
+
+        MonthOvertime loaded = load(month);
+
+        synchronized (this) {
+            if (generation == observed) {
+                months.put(month, loaded);
+                Iterator<YearMonth> eldest = months.keySet().iterator();
+                while (months.size() > MAX_MONTHS) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public double getOvertimeHours(String username, YearMonth month) {
+        return getMonth(month).getHours(username);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onAttendanceChanged(AttendanceChangedEvent event) {
+        generation++;
+        if (event.isAll()) {
+            months.clear();
+        } else {
+            for (LocalDate date : event.getDates()) {
+                months.remove(YearMonth.from(date));
+            }
+        }
+    }
+
+    private MonthOvertime load(YearMonth month) {
+        long standard = standardDailyHours.movePointRight(2).longValueExact();
+        LocalDate start = month.atDay(1);
+        Map<String, Long> hundredths = new HashMap<>();
+
+        // Working hours are recorded to the hundredth, so the sum is exact in hundredths
+        jdbcTemplate.query("SELECT username, SUM(GREATEST(ROUND(working_hours * 100) - ?, 0)) FROM attendance " +
+                        "WHERE attendance_date >= ? AND attendance_date < ? AND working_hours IS NOT NULL GROUP BY username",
+                (RowCallbackHandler) rs -> hundredths.merge(rs.getString(1), rs.getLong(2), Long::sum),
+                standard, Date.valueOf(start), Date.valueOf(start.plusMonths(1)));
+
+        // A closed month's rows live in the archives, apart from users whose rows could not be packed
+        archiveService.streamArchivedMonth(month, archive -> hundredths.merge(archive.getUsername(),
+                AttendanceMonthCodec.overtimeHundredths(archive.getWorkingHours(), standard), Long::sum));
+
+        return new MonthOvertime(month, hundredths);
+    }
+
+    // Inner class for one month's overtime by username
+    public static class MonthOvertime {
+        private final YearMonth month;
+        private final Map<String, Long> hundredths;
+
+        public MonthOvertime(YearMonth month, Map<String, Long> hundredths) {
+            this.month = month;
+            this.hundredths = hundredths;
+        }
+
+        // Users without recorded hours beyond the standard day have no overtime
+        public double getHours(String username) {
+            Long overtime = hundredths.get(username);
+            return overtime != null ? overtime / 100.0 : 0.0;
+        }
+
+        // Getters
+        public YearMonth getMonth() { return month; }
+        public int getUsers() { return hundredths.size(); }
+    }
+}
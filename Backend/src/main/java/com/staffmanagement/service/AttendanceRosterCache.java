@@ -0,0 +1,98 @@
+package com.staffmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staffmanagement.model.AttendanceChangedEvent;
+import com.staffmanagement.model.AttendanceResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serialized attendance rosters by date, for the polled attendance board.
+ * A roster is built and serialized once, then served as bytes with an ETag
+ * until an attendance write for its date evicts it.
+ */
+@Component
+public class AttendanceRosterCache {
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${attendance.roster-cache.max-dates:62}")
+    private int maxDates;
+
+    // Least recently used first; guarded by this
+    private final Map<LocalDate, Roster> rosters = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Bumped by every eviction, so a roster loaded across a write is not cached
+    private long generation;
+
+    public Roster get(LocalDate date) throws JsonProcessingException {
+        long observed;
+        synchronized (this) {
+            Roster cached = rosters.get(date);
+            if (cached != null) {
+                return cached;
+            }
+            observed = generation;
+        }
+
+        List<AttendanceResponse> attendances = attendanceService.getAllAttendanceByDate(date);
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", true);
+        body.put("attendances", attendances);
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        Roster roster = new Roster(json, '"' + DigestUtils.md5DigestAsHex(json) + '"');
+
+        synchronized (this) {
+            if (generation == observed) {
+                rosters.put(date, roster);
+                Iterator<LocalDate> eldest = rosters.keySet().iterator();
+                while (rosters.size() > maxDates) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return roster;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onAttendanceChanged(AttendanceChangedEvent event) {
+        generation++;
+        if (event.isAll()) {
+            rosters.clear();
+        } else {
+            rosters.keySet().removeAll(event.getDates());
+        }
+    }
+
+    // Inner class for a serialized roster
+    public static class Roster {
+        private final byte[] body;
+        private final String etag;
+
+        public Roster(byte[] body, String etag) {
+            this.body = body;
+            this.etag = etag;
+        }
+
+        // Getters
+        public byte[] getBody() { return body; }
+        public String getEtag() { return etag; }
+    }
+}
@@ -1,99 +1,153 @@
 package com.staffmanagement.service;
 
 import com.staffmanagement.model.Attendance;
+import com.staffmanagement.model.AttendanceActionResult;
+import com.staffmanagement.model.AttendanceChangedEvent;
+import com.staffmanagement.model.AttendanceCounter;
+import com.staffmanagement.model.AttendanceEvent;
+import com.staffmanagement.model.AttendanceMonthArchive;
 import com.staffmanagement.model.AttendanceRequest;
 import com.staffmanagement.model.AttendanceResponse;
+import com.staffmanagement.repository.AttendanceJdbcRepository;
 import com.staffmanagement.repository.AttendanceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class AttendanceService {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final Comparator<Attendance> NEWEST_FIRST =
+            Comparator.comparing(Attendance::getAttendanceDate).reversed();
+    
     @Autowired
     private AttendanceRepository attendanceRepository;
     
-    public AttendanceResponse markCheckIn(String username) {
+    @Autowired
+    private AttendanceJdbcRepository attendanceJdbcRepository;
+    
+    @Autowired
+    private CheckInWriteBehindBuffer checkInBuffer;
+    
+    @Autowired
+    private AttendanceCounterService attendanceCounterService;
+    
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+    
+    @Autowired
+    private AttendanceEventLog attendanceEventLog;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    /**
+     * Checks the user in for today. A duplicate check-in is reported in the
+     * result rather than thrown; each attempt is one conditional statement and
+     * losing a race to a concurrent writer only means re-reading the row.
+     */
+    public AttendanceActionResult markCheckIn(String username) {
         LocalDate today = LocalDate.now();
         
-        try {
-            // Check if attendance already exists for today
-            Optional<Attendance> existingAttendance = attendanceRepository.findByUsernameAndAttendanceDate(username, today);
+        // Write-behind mode acknowledges from the journal and flushes to the table in batches
+        if (checkInBuffer.isEnabled()) {
+            return checkInBuffer.checkIn(username);
+        }
+        
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            LocalTime now = LocalTime.now();
+            Long id = attendanceJdbcRepository.insertCheckIn(username, today, now);
+            if (id != null) {
+                Attendance attendance = new Attendance(username, today, now, "PRESENT");
+                attendance.setId(id);
+                attendanceCounterService.recordChange(username, today, null, "PRESENT", true);
+                recordCheckInEvent(attendance, true);
+                eventPublisher.publishEvent(AttendanceChangedEvent.of(username, today));
+                return AttendanceActionResult.applied(convertToResponse(attendance));
+            }
             
-            if (existingAttendance.isPresent()) {
-                Attendance attendance = existingAttendance.get();
-                if (attendance.getCheckInTime() != null) {
-                    throw new RuntimeException("You have already checked in today at " + attendance.getCheckInTime());
-                }
-                // Update existing record
-                attendance.setCheckInTime(LocalTime.now());
-                attendance.setStatus("PRESENT");
-                Attendance savedAttendance = saveAttendanceSafely(attendance);
-                return convertToResponse(savedAttendance);
-            } else {
-                // Create new attendance record
-                Attendance attendance = new Attendance();
-                attendance.setUsername(username);
-                attendance.setAttendanceDate(today);
-                attendance.setCheckInTime(LocalTime.now());
+            // The day already has a row, e.g. a manual entry without a check-in
+            Optional<Attendance> existingAttendance = attendanceJdbcRepository.findByUsernameAndDate(username, today);
+            if (existingAttendance.isEmpty()) {
+                continue;
+            }
+            Attendance attendance = existingAttendance.get();
+            if (attendance.getCheckInTime() != null) {
+                return AttendanceActionResult.rejected("You have already checked in today at " + attendance.getCheckInTime(),
+                        convertToResponse(attendance));
+            }
+            String previousStatus = attendance.getStatus();
+            if (attendanceJdbcRepository.updateCheckIn(attendance.getId(), previousStatus, now)) {
+                attendance.setCheckInTime(now);
                 attendance.setStatus("PRESENT");
-                
-                Attendance savedAttendance = saveAttendanceSafely(attendance);
-                return convertToResponse(savedAttendance);
+                attendanceCounterService.recordChange(username, today, previousStatus, "PRESENT", false);
+                recordCheckInEvent(attendance, false);
+                eventPublisher.publishEvent(AttendanceChangedEvent.of(username, today));
+                return AttendanceActionResult.applied(convertToResponse(attendance));
             }
-        } catch (DataIntegrityViolationException e) {
-            // Handle unique constraint violation
-            throw new RuntimeException("Attendance record already exists for today. Please refresh and try again.");
-        } catch (Exception e) {
-            throw new RuntimeException("Error marking check-in: " + e.getMessage());
         }
+        return AttendanceActionResult.rejected("Attendance record changed concurrently. Please try again.", null);
     }
     
-    public AttendanceResponse markCheckOut(String username) {
+    public AttendanceActionResult markCheckOut(String username) {
         LocalDate today = LocalDate.now();
+        checkInBuffer.flushIfPending(username, today);
         
-        try {
-            Optional<Attendance> attendanceOpt = attendanceRepository.findByUsernameAndAttendanceDate(username, today);
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            Optional<Attendance> attendanceOpt = attendanceJdbcRepository.findByUsernameAndDate(username, today);
             
             if (attendanceOpt.isEmpty()) {
-                throw new RuntimeException("You haven't checked in today. Please check in first.");
+                return AttendanceActionResult.rejected("You haven't checked in today. Please check in first.", null);
             }
             
             Attendance attendance = attendanceOpt.get();
             
             if (attendance.getCheckOutTime() != null) {
-                throw new RuntimeException("You have already checked out today at " + attendance.getCheckOutTime());
+                return AttendanceActionResult.rejected("You have already checked out today at " + attendance.getCheckOutTime(),
+                        convertToResponse(attendance));
             }
             
             if (attendance.getCheckInTime() == null) {
-                throw new RuntimeException("Check-in time not found. Please check in first.");
+                return AttendanceActionResult.rejected("Check-in time not found. Please check in first.",
+                        convertToResponse(attendance));
             }
             
-            attendance.setCheckOutTime(LocalTime.now());
-            
-            // Calculate working hours
-            long minutes = ChronoUnit.MINUTES.between(attendance.getCheckInTime(), attendance.getCheckOutTime());
-            double hours = minutes / 60.0;
-            attendance.setWorkingHours(Math.round(hours * 100.0) / 100.0);
-            
-            Attendance savedAttendance = saveAttendanceSafely(attendance);
-            return convertToResponse(savedAttendance);
-            
-        } catch (DataIntegrityViolationException e) {
-            throw new RuntimeException("Error updating attendance record. Please try again.");
-        } catch (Exception e) {
-            throw new RuntimeException("Error marking check-out: " + e.getMessage());
+            // Calculate working hours; the update only applies if the check-in they are based on is unchanged
+            LocalTime now = LocalTime.now();
+            Double workingHours = calculateWorkingHours(attendance.getCheckInTime(), now, attendance.getWorkingHours());
+            if (attendanceJdbcRepository.updateCheckOut(attendance.getId(), attendance.getCheckInTime(), now, workingHours)) {
+                attendance.setCheckOutTime(now);
+                attendance.setWorkingHours(workingHours);
+                AttendanceEvent event = new AttendanceEvent(AttendanceEvent.CHECK_OUT, username, today);
+                event.setCheckOutTime(now);
+                attendanceEventLog.record(event);
+                eventPublisher.publishEvent(AttendanceChangedEvent.of(username, today));
+                return AttendanceActionResult.applied(convertToResponse(attendance));
+            }
         }
+        return AttendanceActionResult.rejected("Attendance record changed concurrently. Please try again.", null);
     }
     
     public AttendanceResponse markManualAttendance(AttendanceRequest request) {
@@ -108,13 +162,18 @@ public class AttendanceService {
             throw new RuntimeException("Status is required");
         }
         
+        checkInBuffer.flushIfPending(request.getUsername(), today);
+        
         try {
             // Check if attendance already exists for today
             Optional<Attendance> existingAttendance = attendanceRepository.findByUsernameAndAttendanceDate(request.getUsername(), today);
             
             Attendance attendance;
+            boolean newRow = existingAttendance.isEmpty();
+            String previousStatus = null;
             if (existingAttendance.isPresent()) {
                 attendance = existingAttendance.get();
+                previousStatus = attendance.getStatus();
             } else {
                 attendance = new Attendance();
                 attendance.setUsername(request.getUsername());
@@ -136,13 +195,24 @@ public class AttendanceService {
             }
             
             // Calculate working hours if both check-in and check-out are provided
-            if (attendance.getCheckInTime() != null && attendance.getCheckOutTime() != null) {
-                long minutes = ChronoUnit.MINUTES.between(attendance.getCheckInTime(), attendance.getCheckOutTime());
-                double hours = minutes / 60.0;
-                attendance.setWorkingHours(Math.round(hours * 100.0) / 100.0);
-            }
+            attendance.setWorkingHours(calculateWorkingHours(
+                    attendance.getCheckInTime(), attendance.getCheckOutTime(), attendance.getWorkingHours()));
             
             Attendance savedAttendance = saveAttendanceSafely(attendance);
+            attendanceCounterService.recordChange(request.getUsername(), today, previousStatus,
+                    savedAttendance.getStatus(), newRow);
+            if (savedAttendance.getCheckInTime() != null) {
+                checkInBuffer.noteCheckIn(savedAttendance.getUsername(), today, savedAttendance.getCheckInTime());
+            }
+            
+            AttendanceEvent event = new AttendanceEvent(AttendanceEvent.MANUAL_OVERRIDE, request.getUsername(), today);
+            event.setCheckInTime(request.getCheckInTime());
+            event.setCheckOutTime(request.getCheckOutTime());
+            event.setStatus(request.getStatus());
+            event.setNotes(request.getNotes());
+            event.setCreated(newRow);
+            attendanceEventLog.record(event);
+            eventPublisher.publishEvent(AttendanceChangedEvent.of(request.getUsername(), today));
             return convertToResponse(savedAttendance);
             
         } catch (DataIntegrityViolationException e) {
@@ -152,8 +222,16 @@ public class AttendanceService {
         }
     }
     
+    private void recordCheckInEvent(Attendance attendance, boolean created) {
+        AttendanceEvent event = new AttendanceEvent(AttendanceEvent.CHECK_IN, attendance.getUsername(), attendance.getAttendanceDate());
+        event.setCheckInTime(attendance.getCheckInTime());
+        event.setStatus("PRESENT");
+        event.setCreated(created);
+        attendanceEventLog.record(event);
+    }
+    
     /**
-     * Safe method to save attendance with retry logic for ID conflicts
+     * Safe method to save attendance with retry logic for ID conflicts (manual attendance)
      */
     private Attendance saveAttendanceSafely(Attendance attendance) {
         try {
@@ -189,54 +267,175 @@ public class AttendanceService {
     }
     
     public List<AttendanceResponse> getUserAttendance(String username) {
-        List<Attendance> attendances = attendanceRepository.findByUsernameOrderByAttendanceDateDesc(username);
+        List<Attendance> attendances = new ArrayList<>(attendanceRepository.findByUsernameOrderByAttendanceDateDesc(username));
+        for (AttendanceMonthArchive archive : attendanceArchiveService.findArchives(username)) {
+            attendances.addAll(AttendanceMonthCodec.decode(archive));
+        }
         return attendances.stream()
+                .sorted(NEWEST_FIRST)
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * One page of a user's history, newest first. Pass the nextCursor of the
+     * previous page as {@code before} to continue; null starts from the latest.
+     */
+    @Transactional(readOnly = true)
+    public AttendancePage getUserAttendancePage(String username, LocalDate before, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page follows
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Attendance> rows = before == null
+                ? attendanceRepository.findByUsernameOrderByAttendanceDateDesc(username, limit)
+                : attendanceRepository.findByUsernameAndAttendanceDateBeforeOrderByAttendanceDateDesc(username, before, limit);
+        rows = mergeArchivedPage(username, rows, before, pageSize + 1);
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<AttendanceResponse> attendances = rows.stream()
+                .limit(pageSize)
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        LocalDate nextCursor = hasMore ? attendances.get(attendances.size() - 1).getAttendanceDate() : null;
+        return new AttendancePage(attendances, nextCursor, hasMore);
+    }
+    
+    /**
+     * Adds archived days to a page of raw rows. A closed month has no raw
+     * rows, so only archives between the oldest raw row (when the page is
+     * full) and the cursor can contribute.
+     */
+    private List<Attendance> mergeArchivedPage(String username, List<Attendance> rows, LocalDate before, int limit) {
+        List<AttendanceMonthArchive> archives = attendanceArchiveService.findArchives(username);
+        if (archives.isEmpty()) {
+            return rows;
+        }
+        YearMonth newest = before != null ? YearMonth.from(before) : null;
+        YearMonth oldest = rows.size() == limit ? YearMonth.from(rows.get(rows.size() - 1).getAttendanceDate()) : null;
+        
+        List<Attendance> merged = new ArrayList<>(rows);
+        for (AttendanceMonthArchive archive : archives) {
+            YearMonth month = YearMonth.parse(archive.getMonth());
+            if ((newest != null && month.isAfter(newest)) || (oldest != null && month.isBefore(oldest))) {
+                continue;
+            }
+            for (Attendance day : AttendanceMonthCodec.decode(archive)) {
+                if (before == null || day.getAttendanceDate().isBefore(before)) {
+                    merged.add(day);
+                }
+            }
+        }
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+    
+    // Hands a user's whole history to the consumer row by row without materializing it
+    @Transactional(readOnly = true)
+    public void streamUserAttendance(String username, Consumer<AttendanceResponse> consumer) {
+        // Archived days are interleaved by date as the cursor advances, one decoded month at a time
+        Deque<Attendance> archivedDays = new ArrayDeque<>();
+        Iterator<AttendanceMonthArchive> archives = attendanceArchiveService.findArchives(username).iterator();
+        attendanceJdbcRepository.streamByUsername(username, STREAM_FETCH_SIZE, attendance -> {
+            emitArchivedDaysAfter(attendance.getAttendanceDate(), archivedDays, archives, consumer);
+            consumer.accept(convertToResponse(attendance));
+        });
+        emitArchivedDaysAfter(null, archivedDays, archives, consumer);
+    }
+    
+    private void emitArchivedDaysAfter(LocalDate date, Deque<Attendance> archivedDays,
+                                       Iterator<AttendanceMonthArchive> archives, Consumer<AttendanceResponse> consumer) {
+        while (true) {
+            if (archivedDays.isEmpty()) {
+                if (!archives.hasNext()) {
+                    return;
+                }
+                // Decoded days are ascending; pushing to the front leaves the newest first
+                for (Attendance day : AttendanceMonthCodec.decode(archives.next())) {
+                    archivedDays.addFirst(day);
+                }
+                continue;
+            }
+            if (date != null && !archivedDays.peekFirst().getAttendanceDate().isAfter(date)) {
+                return;
+            }
+            consumer.accept(convertToResponse(archivedDays.pollFirst()));
+        }
+    }
+    
     public List<AttendanceResponse> getUserAttendanceByMonth(String username, int year, int month) {
-        List<Attendance> attendances = attendanceRepository.findMonthlyAttendance(username, year, month);
+        Optional<List<Attendance>> archived = attendanceArchiveService.findArchivedMonth(username, YearMonth.of(year, month));
+        List<Attendance> attendances = archived.isPresent()
+                ? archived.get()
+                : attendanceRepository.findMonthlyAttendance(username, year, month);
         return attendances.stream()
+                .sorted(NEWEST_FIRST)
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
     
     public AttendanceResponse getTodayAttendance(String username) {
-        Optional<Attendance> attendance = attendanceRepository.findByUsernameAndAttendanceDate(username, LocalDate.now());
+        LocalDate today = LocalDate.now();
+        Attendance pending = checkInBuffer.getPending(username, today);
+        if (pending != null) {
+            return convertToResponse(pending);
+        }
+        Optional<Attendance> attendance = attendanceRepository.findByUsernameAndAttendanceDate(username, today);
         return attendance.map(this::convertToResponse).orElse(null);
     }
     
     public List<AttendanceResponse> getAllAttendanceByDate(LocalDate date) {
         List<Attendance> attendances = attendanceRepository.findByAttendanceDateOrderByUsername(date);
+        List<Attendance> archived = attendanceArchiveService.findArchivedDay(date);
+        if (!archived.isEmpty()) {
+            attendances = new ArrayList<>(attendances);
+            attendances.addAll(archived);
+            attendances.sort(Comparator.comparing(Attendance::getUsername));
+        }
         return attendances.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
     
     public AttendanceStats getAttendanceStats(String username) {
-        List<Attendance> recentAttendances = attendanceRepository.findByUsernameOrderByAttendanceDateDesc(username);
-        
-        long totalDays = recentAttendances.size();
-        long presentDays = recentAttendances.stream()
-                .filter(a -> "PRESENT".equals(a.getStatus()))
-                .count();
-        long absentDays = recentAttendances.stream()
-                .filter(a -> "ABSENT".equals(a.getStatus()))
-                .count();
-        long halfDays = recentAttendances.stream()
-                .filter(a -> "HALF_DAY".equals(a.getStatus()))
-                .count();
-        long leaveDays = recentAttendances.stream()
-                .filter(a -> "LEAVE".equals(a.getStatus()))
-                .count();
-        
-        double attendancePercentage = totalDays > 0 ? (presentDays * 100.0) / totalDays : 0;
+        Optional<AttendanceCounter> counter = attendanceCounterService.getCounter(username, AttendanceCounter.ALL_TIME);
+        if (counter.isEmpty()) {
+            // Users whose history predates the counters get theirs built on first read
+            attendanceCounterService.rebuildUser(username);
+            counter = attendanceCounterService.getCounter(username, AttendanceCounter.ALL_TIME);
+        }
+        return toStats(counter.orElse(null));
+    }
+    
+    public AttendanceStats getMonthlyAttendanceStats(String username, int year, int month) {
+        String period = YearMonth.of(year, month).toString();
+        return toStats(attendanceCounterService.getCounter(username, period).orElse(null));
+    }
+    
+    private AttendanceStats toStats(AttendanceCounter counter) {
+        if (counter == null) {
+            return new AttendanceStats(0, 0, 0, 0, 0, 0);
+        }
+        long totalDays = counter.getTotalDays();
+        double attendancePercentage = totalDays > 0 ? (counter.getPresentDays() * 100.0) / totalDays : 0;
         
-        return new AttendanceStats(totalDays, presentDays, absentDays, halfDays, leaveDays, 
+        return new AttendanceStats(totalDays, counter.getPresentDays(), counter.getAbsentDays(),
+                                 counter.getHalfDays(), counter.getLeaveDays(),
                                  Math.round(attendancePercentage * 100.0) / 100.0);
     }
     
+    /**
+     * Working hours rounded to two decimals, or the current value when either
+     * check-in or check-out time is missing
+     */
+    static Double calculateWorkingHours(LocalTime checkInTime, LocalTime checkOutTime, Double current) {
+        if (checkInTime == null || checkOutTime == null) {
+            return current;
+        }
+        long minutes = ChronoUnit.MINUTES.between(checkInTime, checkOutTime);
+        double hours = minutes / 60.0;
+        return Math.round(hours * 100.0) / 100.0;
+    }
+    
     private AttendanceResponse convertToResponse(Attendance attendance) {
         AttendanceResponse response = new AttendanceResponse();
         response.setId(attendance.getId());
@@ -250,6 +449,24 @@ public class AttendanceService {
         return response;
     }
     
+    // Inner class for a keyset-paginated slice of history
+    public static class AttendancePage {
+        private List<AttendanceResponse> attendances;
+        private LocalDate nextCursor;
+        private boolean hasMore;
+        
+        public AttendancePage(List<AttendanceResponse> attendances, LocalDate nextCursor, boolean hasMore) {
+            this.attendances = attendances;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+        }
+        
+        // Getters
+        public List<AttendanceResponse> getAttendances() { return attendances; }
+        public LocalDate getNextCursor() { return nextCursor; }
+        public boolean isHasMore() { return hasMore; }
+    }
+    
     // Inner class for stats
     public static class AttendanceStats {
         private long totalDays;
@@ -0,0 +1,340 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.Attendance;
+import com.staffmanagement.model.AttendanceActionResult;
+import com.staffmanagement.model.AttendanceRequest;
+import com.staffmanagement.model.AttendanceResponse;
+import com.staffmanagement.model.BulkAttendanceResult;
+import com.staffmanagement.model.BulkAttendanceResult.RecordResult;
+import com.staffmanagement.repository.AttendanceJdbcRepository;
+import com.staffmanagement.repository.AttendanceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional write-behind path for check-ins. A check-in is acknowledged as soon
+ * as it is appended (and forced) to a local journal; the buffered check-ins are
+ * flushed to the attendance table in batches on a short interval. On startup
+ * any journal left behind by a crash is replayed, so an acknowledged check-in
+ * is never lost. A flush never overwrites a check-in already in the table,
+ * whether it came from a previous flush, bulk ingest or event-log replay;
+ * such entries are dropped, as are entries the ingest rejects, so neither is
+ * retried forever.
+ */
+@Component
+public class CheckInWriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckInWriteBehindBuffer.class);
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private AttendanceJdbcRepository attendanceJdbcRepository;
+
+    @Autowired
+    private AttendanceBulkService attendanceBulkService;
+
+    @Value("${attendance.checkin.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${attendance.checkin.write-behind.journal:data/checkin-journal.log}")
+    private String journalPath;
+
+    // Check-ins known for the current day, loaded from the table once per day
+    private final Map<String, LocalTime> checkedInToday = new ConcurrentHashMap<>();
+    private volatile LocalDate loadedDay;
+
+    // Acknowledged but not yet flushed check-ins; guarded by journalLock
+    private final Map<String, Attendance> pending = new LinkedHashMap<>();
+    private final Object journalLock = new Object();
+    private final Object flushLock = new Object();
+    private FileChannel journal;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path path = Paths.get(journalPath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        if (Files.exists(path)) {
+            // Only newline-terminated entries were acknowledged; a torn tail is dropped
+            String content = Files.readString(path, StandardCharsets.UTF_8);
+            content = content.substring(0, content.lastIndexOf('\n') + 1);
+            for (String line : content.split("\n")) {
+                Attendance entry = parseJournalLine(line);
+                if (entry != null) {
+                    pending.put(pendingKey(entry.getUsername(), entry.getAttendanceDate()), entry);
+                }
+            }
+            if (!pending.isEmpty()) {
+                log.info("Recovered {} unflushed check-ins from {}", pending.size(), path);
+            }
+        }
+        journal = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a check-in for today and returns once it is durable in the
+     * journal. A user who has already checked in today gets a rejected result.
+     */
+    public AttendanceActionResult checkIn(String username) {
+        LocalDate today = LocalDate.now();
+        ensureDayLoaded(today);
+
+        LocalTime now = LocalTime.now();
+        LocalTime previous = checkedInToday.putIfAbsent(username, now);
+        if (previous != null) {
+            return AttendanceActionResult.rejected("You have already checked in today at " + previous, null);
+        }
+
+        Attendance entry = new Attendance(username, today, now, "PRESENT");
+        try {
+            synchronized (journalLock) {
+                byte[] line = (username + '\t' + today + '\t' + now + '\n').getBytes(StandardCharsets.UTF_8);
+                journal.write(ByteBuffer.wrap(line));
+                journal.force(false);
+                pending.put(pendingKey(username, today), entry);
+            }
+        } catch (IOException e) {
+            checkedInToday.remove(username, now);
+            throw new RuntimeException("Could not record check-in: " + e.getMessage());
+        }
+
+        AttendanceResponse response = new AttendanceResponse();
+        response.setUsername(username);
+        response.setAttendanceDate(today);
+        response.setCheckInTime(now);
+        response.setStatus("PRESENT");
+        return AttendanceActionResult.applied(response);
+    }
+
+    // Keeps the in-memory view in sync when a check-in time is written through another path
+    public void noteCheckIn(String username, LocalDate date, LocalTime checkInTime) {
+        if (enabled && date.equals(loadedDay)) {
+            checkedInToday.put(username, checkInTime);
+        }
+    }
+
+    public Attendance getPending(String username, LocalDate date) {
+        synchronized (journalLock) {
+            return pending.get(pendingKey(username, date));
+        }
+    }
+
+    // Flushes synchronously when the user has an unflushed check-in, so reads and writes that follow see it
+    public void flushIfPending(String username, LocalDate date) {
+        if (enabled && getPending(username, date) != null) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.checkin.write-behind.flush-interval-ms:500}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (flushLock) {
+            // Entries stay pending (and visible to reads) until they are committed
+            List<Attendance> batch;
+            synchronized (journalLock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+            }
+
+            // Bulk ingest and event-log replay write check-ins without going through this buffer;
+            // the stored check-in wins and the buffered one is dropped
+            List<Attendance> dropped = new ArrayList<>();
+            Map<String, LocalTime> stored;
+            try {
+                stored = storedCheckIns(batch);
+            } catch (Exception e) {
+                log.warn("Check-in flush failed, will retry: {}", e.getMessage());
+                return;
+            }
+            List<Attendance> toFlush = new ArrayList<>(batch.size());
+            for (Attendance entry : batch) {
+                LocalTime checkInTime = stored.get(pendingKey(entry.getUsername(), entry.getAttendanceDate()));
+                if (checkInTime == null) {
+                    toFlush.add(entry);
+                    continue;
+                }
+                if (!checkInTime.equals(entry.getCheckInTime())) {
+                    log.warn("Dropping buffered check-in of {} on {} at {}: already checked in at {}",
+                            entry.getUsername(), entry.getAttendanceDate(), entry.getCheckInTime(), checkInTime);
+                }
+                if (entry.getAttendanceDate().equals(loadedDay)) {
+                    checkedInToday.put(entry.getUsername(), checkInTime);
+                }
+                dropped.add(entry);
+            }
+
+            List<AttendanceRequest> punches = new ArrayList<>(toFlush.size());
+            for (Attendance entry : toFlush) {
+                AttendanceRequest punch = new AttendanceRequest();
+                punch.setUsername(entry.getUsername());
+                punch.setAttendanceDate(entry.getAttendanceDate());
+                punch.setCheckInTime(entry.getCheckInTime());
+                punch.setStatus(entry.getStatus());
+                punches.add(punch);
+            }
+
+            try {
+                BulkAttendanceResult result = attendanceBulkService.ingest(punches);
+                for (RecordResult record : result.getRecords()) {
+                    if (RecordResult.FAILED.equals(record.getResult())) {
+                        // Retrying a rejected punch fails the same way every interval; drop it and let the user check in again
+                        Attendance entry = toFlush.get(record.getIndex());
+                        log.error("Dropping buffered check-in of {} on {} at {}: {}", entry.getUsername(),
+                                entry.getAttendanceDate(), entry.getCheckInTime(), record.getMessage());
+                        checkedInToday.remove(entry.getUsername(), entry.getCheckInTime());
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Check-in flush failed, will retry: {}", e.getMessage());
+                return;
+            }
+
+            List<Attendance> flushed = new ArrayList<>(toFlush);
+            flushed.addAll(dropped);
+            synchronized (journalLock) {
+                for (Attendance entry : flushed) {
+                    pending.remove(pendingKey(entry.getUsername(), entry.getAttendanceDate()), entry);
+                }
+                try {
+                    rewriteJournal();
+                } catch (IOException e) {
+                    // The old journal is still in place; entries are replayed on the next start
+                    log.error("Could not compact check-in journal: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        synchronized (journalLock) {
+            journal.close();
+        }
+    }
+
+    private void ensureDayLoaded(LocalDate today) {
+        if (today.equals(loadedDay)) {
+            return;
+        }
+        synchronized (this) {
+            if (today.equals(loadedDay)) {
+                return;
+            }
+            checkedInToday.clear();
+            for (Attendance attendance : attendanceRepository.findByAttendanceDateOrderByUsername(today)) {
+                if (attendance.getCheckInTime() != null) {
+                    checkedInToday.put(attendance.getUsername(), attendance.getCheckInTime());
+                }
+            }
+            synchronized (journalLock) {
+                for (Attendance entry : pending.values()) {
+                    if (today.equals(entry.getAttendanceDate())) {
+                        checkedInToday.put(entry.getUsername(), entry.getCheckInTime());
+                    }
+                }
+            }
+            loadedDay = today;
+        }
+    }
+
+    // Check-in times already in the table for the batch's users and days, by pending key
+    private Map<String, LocalTime> storedCheckIns(List<Attendance> batch) {
+        Set<String> usernames = new HashSet<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (Attendance entry : batch) {
+            usernames.add(entry.getUsername());
+            LocalDate date = entry.getAttendanceDate();
+            from = from == null || date.isBefore(from) ? date : from;
+            to = to == null || date.isAfter(to) ? date : to;
+        }
+        Map<String, LocalTime> stored = new HashMap<>();
+        for (Attendance attendance : attendanceJdbcRepository.findByUsernamesAndDateRange(usernames, from, to)) {
+            if (attendance.getCheckInTime() != null) {
+                stored.put(pendingKey(attendance.getUsername(), attendance.getAttendanceDate()), attendance.getCheckInTime());
+            }
+        }
+        return stored;
+    }
+
+    // Replaces the journal with the still-pending entries; caller holds journalLock
+    private void rewriteJournal() throws IOException {
+        Path path = Paths.get(journalPath);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        StringBuilder content = new StringBuilder();
+        for (Attendance entry : pending.values()) {
+            content.append(entry.getUsername()).append('\t')
+                   .append(entry.getAttendanceDate()).append('\t')
+                   .append(entry.getCheckInTime()).append('\n');
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        journal.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Attendance parseJournalLine(String line) {
+        String[] parts = line.split("\t");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new Attendance(parts[0], LocalDate.parse(parts[1]), LocalTime.parse(parts[2]), "PRESENT");
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String pendingKey(String username, LocalDate date) {
+        return username + '|' + date;
+    }
+}
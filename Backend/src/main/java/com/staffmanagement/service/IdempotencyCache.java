@@ -0,0 +1,94 @@
+package com.staffmanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the result of requests sent with a client-supplied idempotency
+ * key, so a retried or double-tapped request gets the original result
+ * without touching the database. Concurrent requests with the same key wait
+ * for the first one. Failed requests are not remembered and can be retried.
+ */
+@Component
+public class IdempotencyCache {
+
+    @Value("${attendance.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${attendance.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    // Insertion order is also expiry order; guarded by this
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Runs the action once per (scope, key). Without a key the action simply
+     * runs. The scope keeps keys from different operations and users apart.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String cacheKey = scope + '|' + key;
+        Entry entry;
+        boolean owner = false;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            evict(now);
+            entry = entries.get(cacheKey);
+            if (entry == null) {
+                entry = new Entry(now);
+                entries.put(cacheKey, entry);
+                owner = true;
+            }
+        }
+
+        if (!owner) {
+            try {
+                return (T) entry.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            T result = action.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                entries.remove(cacheKey, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void evict(long now) {
+        long expiredBefore = now - ttlMinutes * 60_000;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry oldest = iterator.next();
+            if (oldest.createdAt >= expiredBefore && entries.size() < maxEntries) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private static class Entry {
+        private final long createdAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.SalaryChangedEvent;
+import com.staffmanagement.model.SalaryResponse;
+import com.staffmanagement.model.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Each user's latest payslip, for the staff home page. Users without any
+ * salary are cached too. Entries are evicted when a salary of the user, or
+ * of the month their cached payslip belongs to, is written.
+ */
+@Component
+public class LatestSalaryCache {
+
+    @Value("${salary.latest-cache.max-users:10000}")
+    private int maxUsers;
+
+    // Least recently used first; an empty Optional means the user has no salary; guarded by this
+    private final Map<String, Optional<SalaryResponse>> latest = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Bumped by every eviction, so a payslip loaded across a write is not cached
+    private long generation;
+
+    public SalaryResponse get(String username, Supplier<SalaryResponse> loader) {
+        long observed;
+        synchronized (this) {
+            Optional<SalaryResponse> cached = latest.get(username);
+            if (cached != null) {
+                return cached.orElse(null);
+            }
+            observed = generation;
+        }
+
+        SalaryResponse loaded = loader.get();
+
+        synchronized (this) {
+            if (generation == observed) {
+                latest.put(username, Optional.ofNullable(loaded));
+                Iterator<String> eldest = latest.keySet().iterator();
+                while (latest.size() > maxUsers) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onSalaryChanged(SalaryChangedEvent event) {
+        generation++;
+        if (event.isAll()) {
+            latest.clear();
+            return;
+        }
+        latest.keySet().removeAll(event.getUsernames());
+        if (!event.getMonths().isEmpty()) {
+            latest.values().removeIf(payslip -> payslip.isPresent()
+                    && event.getMonths().contains(payslip.get().getSalaryMonth()));
+        }
+    }
+
+    // Payslips carry the user's name and department
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        generation++;
+        if (event.isAll()) {
+            latest.clear();
+        } else {
+            latest.keySet().removeAll(event.getUsernames());
+        }
+    }
+}
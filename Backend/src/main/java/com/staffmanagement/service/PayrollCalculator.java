@@ -0,0 +1,175 @@
+package com.staffmanagement.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Salary arithmetic on {@code long} paise. Every intermediate value is kept
+ * exact in a scaled unit and rounded HALF_UP to paise only where the
+ * BigDecimal implementation called setScale(2, HALF_UP), so results match
+ * it to the paisa. BigDecimal is used only by the conversion helpers at the
+ * API boundary; calculate() itself does not allocate.
+ */
+public final class PayrollCalculator {
+
+    // Marks an optional override in a Line as not given
+    public static final long UNSET = Long.MIN_VALUE;
+
+    // Overtime hours are carried in 1/10000 of an hour
+    public static final long HOUR = 10_000;
+
+    private static final long BASIS_POINTS = 10_000;
+    private static final long MONTHS = 12;
+
+    private PayrollCalculator() {
+    }
+
+    /**
+     * Resolves the line's unset overrides from the rules and fills in the
+     * overtime pay, gross and net salary.
+     */
+    public static void calculate(PayrollRules rules, Line line) {
+        long basic = line.basicSalary;
+
+        // Default HRA stays exact (in 1/10000 paise) until gross is rounded
+        long hraExact;
+        if (line.houseRentAllowance == UNSET) {
+            hraExact = basic * rules.getHraBasisPoints();
+            line.houseRentAllowance = roundHalfUp(hraExact, BASIS_POINTS);
+        } else {
+            hraExact = line.houseRentAllowance * BASIS_POINTS;
+        }
+        if (line.travelAllowance == UNSET) {
+            line.travelAllowance = rules.getTravelAllowance();
+        }
+        if (line.medicalAllowance == UNSET) {
+            line.medicalAllowance = rules.getMedicalAllowance();
+        }
+        if (line.overtimeRate == UNSET) {
+            line.overtimeRate = rules.getOvertimeRate();
+        }
+        line.overtimePay = roundHalfUp(line.overtimeRate * line.overtimeHours, HOUR);
+
+        long grossExact = basic * BASIS_POINTS + hraExact
+                + (line.travelAllowance + line.medicalAllowance + line.bonus + line.overtimePay) * BASIS_POINTS;
+        line.grossSalary = roundHalfUp(grossExact, BASIS_POINTS);
+
+        if (line.providentFund == UNSET) {
+            line.providentFund = roundHalfUp(basic * rules.getProvidentFundBasisPoints(), BASIS_POINTS);
+        }
+        if (line.taxDeduction == UNSET) {
+            line.taxDeduction = monthlyTax(rules, line.grossSalary);
+        }
+
+        line.netSalary = line.grossSalary - line.taxDeduction - line.providentFund - line.otherDeductions;
+    }
+
+    // Tax on the annualized gross above the threshold, spread over twelve months
+    static long monthlyTax(PayrollRules rules, long grossSalary) {
+        long annualSalary = grossSalary * MONTHS;
+        if (annualSalary <= rules.getAnnualTaxThreshold()) {
+            return 0;
+        }
+        long taxable = annualSalary - rules.getAnnualTaxThreshold();
+        return roundHalfUp(taxable * rules.getTaxBasisPoints(), BASIS_POINTS * MONTHS);
+    }
+
+    // numerator / denominator rounded half away from zero, as RoundingMode.HALF_UP; denominator > 0
+    static long roundHalfUp(long numerator, long denominator) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (Math.abs(remainder) * 2 >= denominator) {
+            quotient += numerator < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    // ===== API BOUNDARY =====
+
+    public static long toPaise(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long toPaise(BigDecimal amount, long defaultPaise) {
+        return amount != null ? toPaise(amount) : defaultPaise;
+    }
+
+    public static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    public static long toOvertimeUnits(Double hours) {
+        if (hours == null) {
+            return 0;
+        }
+        return BigDecimal.valueOf(hours).setScale(4, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * One employee's salary in paise. Set the inputs (optional overrides may
+     * stay UNSET), call calculate(), then read the resolved components. A line
+     * can be reset and reused for the next employee.
+     */
+    public static final class Line {
+        // Inputs
+        long basicSalary;
+        long houseRentAllowance = UNSET;
+        long travelAllowance = UNSET;
+        long medicalAllowance = UNSET;
+        long bonus;
+        long overtimeHours;
+        long overtimeRate = UNSET;
+        long providentFund = UNSET;
+        long taxDeduction = UNSET;
+        long otherDeductions;
+
+        // Outputs
+        long overtimePay;
+        long grossSalary;
+        long netSalary;
+
+        public Line reset() {
+            basicSalary = 0;
+            houseRentAllowance = UNSET;
+            travelAllowance = UNSET;
+            medicalAllowance = UNSET;
+            bonus = 0;
+            overtimeHours = 0;
+            overtimeRate = UNSET;
+            providentFund = UNSET;
+            taxDeduction = UNSET;
+            otherDeductions = 0;
+            overtimePay = 0;
+            grossSalary = 0;
+            netSalary = 0;
+            return this;
+        }
+
+        // Setters
+        public Line basicSalary(long paise) { this.basicSalary = paise; return this; }
+        public Line houseRentAllowance(long paise) { this.houseRentAllowance = paise; return this; }
+        public Line travelAllowance(long paise) { this.travelAllowance = paise; return this; }
+        public Line medicalAllowance(long paise) { this.medicalAllowance = paise; return this; }
+        public Line bonus(long paise) { this.bonus = paise; return this; }
+        public Line overtimeHours(long units) { this.overtimeHours = units; return this; }
+        public Line overtimeRate(long paise) { this.overtimeRate = paise; return this; }
+        public Line providentFund(long paise) { this.providentFund = paise; return this; }
+        public Line taxDeduction(long paise) { this.taxDeduction = paise; return this; }
+        public Line otherDeductions(long paise) { this.otherDeductions = paise; return this; }
+
+        // Getters
+        public long getBasicSalary() { return basicSalary; }
+        public long getHouseRentAllowance() { return houseRentAllowance; }
+        public long getTravelAllowance() { return travelAllowance; }
+        public long getMedicalAllowance() { return medicalAllowance; }
+        public long getBonus() { return bonus; }
+        public long getOvertimeHours() { return overtimeHours; }
+        public long getOvertimeRate() { return overtimeRate; }
+        public long getOvertimePay() { return overtimePay; }
+        public long getProvidentFund() { return providentFund; }
+        public long getTaxDeduction() { return taxDeduction; }
+        public long getOtherDeductions() { return otherDeductions; }
+        public long getGrossSalary() { return grossSalary; }
+        public long getNetSalary() { return netSalary; }
+    }
+}
@@ -0,0 +1,46 @@
+package com.staffmanagement.service;
+
+/**
+ * Salary rules in the fixed-point units used by {@link PayrollCalculator}:
+ * amounts in paise, percentages in basis points (1/100 of a percent).
+ */
+public final class PayrollRules {
+
+    // The rules SalaryService has always applied
+    public static final PayrollRules DEFAULT = new PayrollRules(
+            4_000,          // HRA: 40% of basic
+            160_000,        // travel allowance: 1600.00
+            125_000,        // medical allowance: 1250.00
+            20_000,         // overtime rate: 200.00 per hour
+            1_200,          // PF: 12% of basic
+            50_000_000,     // annual tax threshold: 500000.00
+            500);           // tax: 5% of annual gross above the threshold
+
+    private final long hraBasisPoints;
+    private final long travelAllowance;
+    private final long medicalAllowance;
+    private final long overtimeRate;
+    private final long providentFundBasisPoints;
+    private final long annualTaxThreshold;
+    private final long taxBasisPoints;
+
+    public PayrollRules(long hraBasisPoints, long travelAllowance, long medicalAllowance, long overtimeRate,
+                        long providentFundBasisPoints, long annualTaxThreshold, long taxBasisPoints) {
+        this.hraBasisPoints = hraBasisPoints;
+        this.travelAllowance = travelAllowance;
+        this.medicalAllowance = medicalAllowance;
+        this.overtimeRate = overtimeRate;
+        this.providentFundBasisPoints = providentFundBasisPoints;
+        this.annualTaxThreshold = annualTaxThreshold;
+        this.taxBasisPoints = taxBasisPoints;
+    }
+
+    // Getters
+    public long getHraBasisPoints() { return hraBasisPoints; }
+    public long getTravelAllowance() { return travelAllowance; }
+    public long getMedicalAllowance() { return medicalAllowance; }
+    public long getOvertimeRate() { return overtimeRate; }
+    public long getProvidentFundBasisPoints() { return providentFundBasisPoints; }
+    public long getAnnualTaxThreshold() { return annualTaxThreshold; }
+    public long getTaxBasisPoints() { return taxBasisPoints; }
+}
@@ -0,0 +1,238 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.PayrollRun;
+import com.staffmanagement.model.Salary;
+import com.staffmanagement.model.SalaryChangedEvent;
+import com.staffmanagement.model.SalaryRequest;
+import com.staffmanagement.model.User;
+import com.staffmanagement.repository.SalaryJdbcRepository;
+import com.staffmanagement.repository.SalaryRepository;
+import com.staffmanagement.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Calculates a whole month's payroll as one background job. Users and the
+ * usernames already paid for the month are loaded once; the remaining users
+ * are split into partitions that are calculated in parallel and written
+ * with batched inserts, one transaction per partition together with its
+ * salary aggregate deltas.
+ */
+@Service
+public class PayrollRunService {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollRunService.class);
+
+    private static final int PARTITION_SIZE = 1000;
+    private static final int MAX_RUNS_KEPT = 50;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SalaryRepository salaryRepository;
+
+    @Autowired
+    private SalaryJdbcRepository salaryJdbcRepository;
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @Autowired
+    private SalaryStructureService salaryStructureService;
+
+    @Autowired
+    private SalaryAggregateService salaryAggregateService;
+
+    @Autowired
+    private AttendanceOvertimeService attendanceOvertimeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${payroll.run.workers:0}")
+    private int workers;
+
+    private ExecutorService coordinator;
+    private ExecutorService workerPool;
+
+    // Runs by id, oldest first; guarded by this
+    private final Map<String, PayrollRun> runs = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        coordinator = Executors.newSingleThreadExecutor();
+        workerPool = Executors.newFixedThreadPool(threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    public PayrollRun start(YearMonth month) {
+        return start(month, false);
+    }
+
+    /**
+     * Starts a run in the background; only one run per month can be in
+     * progress. With overtimeFromAttendance each user's overtime hours are
+     * derived from the month's attendance.
+     */
+    public synchronized PayrollRun start(YearMonth month, boolean overtimeFromAttendance) {
+        for (PayrollRun existing : runs.values()) {
+            if (existing.getMonth().equals(month) && PayrollRun.RUNNING.equals(existing.getStatus())) {
+                throw new IllegalStateException("Payroll run " + existing.getId() + " for " + month + " is already in progress");
+            }
+        }
+        PayrollRun run = new PayrollRun(UUID.randomUUID().toString(), month, overtimeFromAttendance);
+        runs.put(run.getId(), run);
+        Iterator<PayrollRun> oldest = runs.values().iterator();
+        while (runs.size() > MAX_RUNS_KEPT && oldest.hasNext()) {
+            if (!PayrollRun.RUNNING.equals(oldest.next().getStatus())) {
+                oldest.remove();
+            }
+        }
+        coordinator.submit(() -> execute(run));
+        return run;
+    }
+
+    public synchronized Optional<PayrollRun> getRun(String id) {
+        return Optional.ofNullable(runs.get(id));
+    }
+
+    // Newest first
+    public synchronized List<PayrollRun> getRuns() {
+        List<PayrollRun> newestFirst = new ArrayList<>(runs.values());
+        Collections.reverse(newestFirst);
+        return newestFirst;
+    }
+
+    private void execute(PayrollRun run) {
+        try {
+            List<User> users = userRepository.findActiveUsers();
+            Set<String> alreadyPaid = new HashSet<>(salaryRepository.findUsernamesBySalaryMonth(run.getMonth()));
+            List<User> pending = new ArrayList<>(users.size());
+            for (User user : users) {
+                if (!alreadyPaid.contains(user.getUsername())) {
+                    pending.add(user);
+                }
+            }
+            run.setTotalUsers(users.size());
+            run.addAlreadyCalculated(users.size() - pending.size());
+
+            // The whole run uses the salary structures in effect when it started
+            SalaryTemplates templates = salaryStructureService.getTemplates();
+            // One grouped pass over the month's attendance for every user
+            AttendanceOvertimeService.MonthOvertime overtime = run.isOvertimeFromAttendance()
+                    ? attendanceOvertimeService.getMonth(run.getMonth()) : null;
+
+            List<Future<?>> partitions = new ArrayList<>();
+            for (int from = 0; from < pending.size(); from += PARTITION_SIZE) {
+                List<User> partition = pending.subList(from, Math.min(from + PARTITION_SIZE, pending.size()));
+                partitions.add(workerPool.submit(() -> processPartition(run, partition, templates, overtime)));
+            }
+            for (Future<?> partition : partitions) {
+                partition.get();
+            }
+            run.finish(PayrollRun.COMPLETED);
+            log.info("Payroll run {} for {}: {} calculated, {} already calculated, {} failed", run.getId(),
+                    run.getMonth(), run.getCalculated(), run.getAlreadyCalculated(), run.getFailed());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.finish(PayrollRun.FAILED);
+        } catch (Exception e) {
+            log.error("Payroll run {} for {} failed", run.getId(), run.getMonth(), e);
+            run.addFailure("*", e.getMessage());
+            run.finish(PayrollRun.FAILED);
+        }
+    }
+
+    private void processPartition(PayrollRun run, List<User> users, SalaryTemplates templates,
+                                  AttendanceOvertimeService.MonthOvertime overtime) {
+        List<Salary> salaries = new ArrayList<>(users.size());
+        List<String> usernames = new ArrayList<>(users.size());
+        for (User user : users) {
+            usernames.add(user.getUsername());
+            try {
+                SalaryRequest request = new SalaryRequest();
+                request.setUsername(user.getUsername());
+                request.setSalaryMonth(run.getMonth());
+                if (overtime != null) {
+                    request.setOvertimeHours(overtime.getHours(user.getUsername()));
+                }
+                salaries.add(salaryService.buildSalary(request, user, templates));
+            } catch (Exception e) {
+                run.addFailure(user.getUsername(), e.getMessage());
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> {
+                salaryJdbcRepository.batchInsert(salaries, PARTITION_SIZE);
+                SalaryAggregateService.Deltas deltas = new SalaryAggregateService.Deltas();
+                for (Salary salary : salaries) {
+                    deltas.addSalary(salary);
+                }
+                salaryAggregateService.apply(deltas);
+            });
+            run.addCalculated(salaries.size(), totalNet(salaries));
+        } catch (DataAccessException e) {
+            // Usually a salary created meanwhile through /calculate; fall back to row-by-row for this partition
+            for (Salary salary : salaries) {
+                try {
+                    transaction.executeWithoutResult(status -> {
+                        salaryJdbcRepository.batchInsert(List.of(salary), 1);
+                        salaryAggregateService.recordSalary(salary);
+                    });
+                    run.addCalculated(1, salary.getNetSalary());
+                } catch (DuplicateKeyException duplicate) {
+                    run.addAlreadyCalculated(1);
+                } catch (DataAccessException rowFailure) {
+                    run.addFailure(salary.getUsername(), rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        eventPublisher.publishEvent(SalaryChangedEvent.of(usernames, run.getMonth()));
+    }
+
+    private static BigDecimal totalNet(List<Salary> salaries) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Salary salary : salaries) {
+            total = total.add(salary.getNetSalary());
+        }
+        return total;
+    }
+}
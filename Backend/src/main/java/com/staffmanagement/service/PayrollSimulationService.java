@@ -0,0 +1,370 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.PayrollSimulationRequest;
+import com.staffmanagement.model.SalaryChangedEvent;
+import com.staffmanagement.model.UserChangedEvent;
+import com.staffmanagement.repository.SalaryJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * What-if payroll: recalculates a month's salaries twice, under each
+ * designation's salary rules as they are (the baseline) and with the
+ * requested overrides, and reports both totals and their difference per
+ * department. The month's inputs are loaded once into primitive columns (and
+ * kept for a few months until a salary of the month changes); simulations
+ * run over them in parallel with PayrollCalculator and never write anything.
+ *
+ * Basic salary, bonus, overtime hours and other deductions are taken from
+ * the stored salaries; every rule-derived component (HRA, allowances,
+ * overtime rate, PF, tax) is recalculated on both sides, so a simulation
+ * without overrides reports no difference even for salaries whose
+ * components were overridden when they were calculated.
+ */
+@Service
+public class PayrollSimulationService {
+
+    private static final int FETCH_SIZE = 1000;
+    // Employees per parallel task
+    private static final int CHUNK = 4096;
+
+    @Autowired
+    private SalaryJdbcRepository salaryJdbcRepository;
+
+    @Autowired
+    private SalaryStructureService salaryStructureService;
+
+    @Value("${payroll.simulation.cached-months:3}")
+    private int cachedMonths;
+
+    // Least recently used first; guarded by this
+    private final Map<YearMonth, Columns> months = new LinkedHashMap<>(4, 0.75f, true);
+
+    // Bumped by every eviction, so columns loaded across a salary write are not cached
+    private long generation;
+
+    public SimulationResult simulate(PayrollSimulationRequest request) {
+        if (request == null || request.getSalaryMonth() == null) {
+            throw new IllegalArgumentException("Salary month is required");
+        }
+        YearMonth month = request.getSalaryMonth();
+        Columns columns = columnsFor(month);
+
+        // Rules per designation: the designation's structure, and the same with the requested overrides
+        SalaryTemplates templates = salaryStructureService.getTemplates();
+        PayrollRules[] baselineRules = new PayrollRules[columns.designations.size()];
+        PayrollRules[] rules = new PayrollRules[baselineRules.length];
+        for (int i = 0; i < rules.length; i++) {
+            baselineRules[i] = templates.resolve(columns.designations.get(i), month).getRules();
+            rules[i] = override(baselineRules[i], request);
+        }
+
+        int departments = columns.departments.size();
+        int chunks = (columns.size + CHUNK - 1) / CHUNK;
+        Totals totals = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> simulateRange(columns, baselineRules, rules,
+                        chunk * CHUNK, Math.min((chunk + 1) * CHUNK, columns.size)))
+                .reduce(Totals::merge)
+                .orElseGet(() -> new Totals(departments));
+
+        List<DepartmentTotals> byDepartment = new ArrayList<>(departments);
+        for (int d = 0; d < departments; d++) {
+            byDepartment.add(totals.toDepartmentTotals(columns.departments.get(d), d));
+        }
+        byDepartment.sort((a, b) -> a.getDepartment().compareTo(b.getDepartment()));
+        return new SimulationResult(month, totals.companyTotals(), byDepartment);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onSalaryChanged(SalaryChangedEvent event) {
+        generation++;
+        if (event.isAll()) {
+            months.clear();
+        } else {
+            months.keySet().removeAll(event.getMonths());
+        }
+    }
+
+    // Loaded months group salaries by the users' departments and designations at load time
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        generation++;
+        months.clear();
+    }
+
+    private Columns columnsFor(YearMonth month) {
+        long observed;
+        synchronized (this) {
+            Columns cached = months.get(month);
+            if (cached != null) {
+                return cached;
+            }
+            observed = generation;
+        }
+
+        Columns columns = new Columns();
+        Map<String, Integer> departmentIndex = new HashMap<>();
+        Map<String, Integer> designationIndex = new HashMap<>();
+        salaryJdbcRepository.streamSimulationInputs(month, FETCH_SIZE, rs -> {
+            double overtimeHours = rs.getDouble(3);
+            long overtimeUnits = PayrollCalculator.toOvertimeUnits(rs.wasNull() ? null : overtimeHours);
+            columns.add(
+                    index(departmentIndex, columns.departments, rs.getString(5)),
+                    index(designationIndex, columns.designations, rs.getString(6)),
+                    paise(rs.getBigDecimal(1)),
+                    paise(rs.getBigDecimal(2)),
+                    overtimeUnits,
+                    paise(rs.getBigDecimal(4)));
+        });
+
+        synchronized (this) {
+            if (generation == observed) {
+                months.put(month, columns);
+                Iterator<YearMonth> eldest = months.keySet().iterator();
+                while (months.size() > cachedMonths) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static Totals simulateRange(Columns columns, PayrollRules[] baselineRules, PayrollRules[] rules, int from, int to) {
+        Totals totals = new Totals(columns.departments.size());
+        PayrollCalculator.Line baseline = new PayrollCalculator.Line();
+        PayrollCalculator.Line line = new PayrollCalculator.Line();
+        for (int i = from; i < to; i++) {
+            inputs(baseline, columns, i);
+            PayrollCalculator.calculate(baselineRules[columns.designation[i]], baseline);
+            inputs(line, columns, i);
+            PayrollCalculator.calculate(rules[columns.designation[i]], line);
+
+            int d = columns.department[i];
+            totals.employees[d]++;
+            totals.baselineGross[d] += baseline.getGrossSalary();
+            totals.baselineNet[d] += baseline.getNetSalary();
+            totals.baselineTax[d] += baseline.getTaxDeduction();
+            totals.baselinePf[d] += baseline.getProvidentFund();
+            totals.simulatedGross[d] += line.getGrossSalary();
+            totals.simulatedNet[d] += line.getNetSalary();
+            totals.simulatedTax[d] += line.getTaxDeduction();
+            totals.simulatedPf[d] += line.getProvidentFund();
+        }
+        return totals;
+    }
+
+    private static void inputs(PayrollCalculator.Line line, Columns columns, int i) {
+        line.reset()
+                .basicSalary(columns.basic[i])
+                .bonus(columns.bonus[i])
+                .overtimeHours(columns.overtimeUnits[i])
+                .otherDeductions(columns.otherDeductions[i]);
+    }
+
+    private static PayrollRules override(PayrollRules rules, PayrollSimulationRequest request) {
+        return new PayrollRules(
+                request.getHraPercentage() != null
+                        ? SalaryTemplates.basisPoints(request.getHraPercentage(), "HRA percentage") : rules.getHraBasisPoints(),
+                request.getTravelAllowance() != null
+                        ? SalaryTemplates.paise(request.getTravelAllowance(), "Travel allowance") : rules.getTravelAllowance(),
+                request.getMedicalAllowance() != null
+                        ? SalaryTemplates.paise(request.getMedicalAllowance(), "Medical allowance") : rules.getMedicalAllowance(),
+                request.getOvertimeRate() != null
+                        ? SalaryTemplates.paise(request.getOvertimeRate(), "Overtime rate") : rules.getOvertimeRate(),
+                request.getPfPercentage() != null
+                        ? SalaryTemplates.basisPoints(request.getPfPercentage(), "PF percentage") : rules.getProvidentFundBasisPoints(),
+                request.getAnnualTaxThreshold() != null
+                        ? SalaryTemplates.paise(request.getAnnualTaxThreshold(), "Annual tax threshold") : rules.getAnnualTaxThreshold(),
+                request.getTaxPercentage() != null
+                        ? SalaryTemplates.basisPoints(request.getTaxPercentage(), "Tax percentage") : rules.getTaxBasisPoints());
+    }
+
+    private static int index(Map<String, Integer> indexes, List<String> values, String value) {
+        String key = value != null ? value : "N/A";
+        return indexes.computeIfAbsent(key, k -> {
+            values.add(k);
+            return values.size() - 1;
+        });
+    }
+
+    private static long paise(BigDecimal amount) {
+        return amount != null ? PayrollCalculator.toPaise(amount) : 0;
+    }
+
+    // One month's salary inputs as parallel primitive arrays
+    private static final class Columns {
+        final List<String> departments = new ArrayList<>();
+        final List<String> designations = new ArrayList<>();
+        int size;
+        int[] department = new int[1024];
+        int[] designation = new int[1024];
+        long[] basic = new long[1024];
+        long[] bonus = new long[1024];
+        long[] overtimeUnits = new long[1024];
+        long[] otherDeductions = new long[1024];
+
+        void add(int departmentIndex, int designationIndex, long basicSalary, long bonusAmount, long overtime, long other) {
+            if (size == basic.length) {
+                int capacity = size * 2;
+                department = Arrays.copyOf(department, capacity);
+                designation = Arrays.copyOf(designation, capacity);
+                basic = Arrays.copyOf(basic, capacity);
+                bonus = Arrays.copyOf(bonus, capacity);
+                overtimeUnits = Arrays.copyOf(overtimeUnits, capacity);
+                otherDeductions = Arrays.copyOf(otherDeductions, capacity);
+            }
+            department[size] = departmentIndex;
+            designation[size] = designationIndex;
+            basic[size] = basicSalary;
+            bonus[size] = bonusAmount;
+            overtimeUnits[size] = overtime;
+            otherDeductions[size] = other;
+            size++;
+        }
+    }
+
+    // Per-department sums in paise for one range of employees
+    private static final class Totals {
+        final long[] employees;
+        final long[] baselineGross;
+        final long[] baselineNet;
+        final long[] baselineTax;
+        final long[] baselinePf;
+        final long[] simulatedGross;
+        final long[] simulatedNet;
+        final long[] simulatedTax;
+        final long[] simulatedPf;
+
+        Totals(int departments) {
+            employees = new long[departments];
+            baselineGross = new long[departments];
+            baselineNet = new long[departments];
+            baselineTax = new long[departments];
+            baselinePf = new long[departments];
+            simulatedGross = new long[departments];
+            simulatedNet = new long[departments];
+            simulatedTax = new long[departments];
+            simulatedPf = new long[departments];
+        }
+
+        Totals merge(Totals other) {
+            for (int d = 0; d < employees.length; d++) {
+                employees[d] += other.employees[d];
+                baselineGross[d] += other.baselineGross[d];
+                baselineNet[d] += other.baselineNet[d];
+                baselineTax[d] += other.baselineTax[d];
+                baselinePf[d] += other.baselinePf[d];
+                simulatedGross[d] += other.simulatedGross[d];
+                simulatedNet[d] += other.simulatedNet[d];
+                simulatedTax[d] += other.simulatedTax[d];
+                simulatedPf[d] += other.simulatedPf[d];
+            }
+            return this;
+        }
+
+        DepartmentTotals toDepartmentTotals(String department, int d) {
+            return new DepartmentTotals(department, employees[d], baselineGross[d], simulatedGross[d],
+                    baselineNet[d], simulatedNet[d], baselineTax[d], simulatedTax[d], baselinePf[d], simulatedPf[d]);
+        }
+
+        DepartmentTotals companyTotals() {
+            return new DepartmentTotals("ALL", sum(employees), sum(baselineGross), sum(simulatedGross),
+                    sum(baselineNet), sum(simulatedNet), sum(baselineTax), sum(simulatedTax), sum(baselinePf), sum(simulatedPf));
+        }
+
+        private static long sum(long[] values) {
+            long total = 0;
+            for (long value : values) {
+                total += value;
+            }
+            return total;
+        }
+    }
+
+    // Inner class for baseline and simulated totals of a department (or the company)
+    public static class DepartmentTotals {
+        private final String department;
+        private final long employees;
+        private final BigDecimal baselineGross;
+        private final BigDecimal simulatedGross;
+        private final BigDecimal grossDelta;
+        private final BigDecimal baselineNet;
+        private final BigDecimal simulatedNet;
+        private final BigDecimal netDelta;
+        private final BigDecimal baselineTax;
+        private final BigDecimal simulatedTax;
+        private final BigDecimal taxDelta;
+        private final BigDecimal baselineProvidentFund;
+        private final BigDecimal simulatedProvidentFund;
+        private final BigDecimal providentFundDelta;
+
+        DepartmentTotals(String department, long employees, long baselineGross, long simulatedGross,
+                         long baselineNet, long simulatedNet, long baselineTax, long simulatedTax,
+                         long baselinePf, long simulatedPf) {
+            this.department = department;
+            this.employees = employees;
+            this.baselineGross = PayrollCalculator.toRupees(baselineGross);
+            this.simulatedGross = PayrollCalculator.toRupees(simulatedGross);
+            this.grossDelta = PayrollCalculator.toRupees(simulatedGross - baselineGross);
+            this.baselineNet = PayrollCalculator.toRupees(baselineNet);
+            this.simulatedNet = PayrollCalculator.toRupees(simulatedNet);
+            this.netDelta = PayrollCalculator.toRupees(simulatedNet - baselineNet);
+            this.baselineTax = PayrollCalculator.toRupees(baselineTax);
+            this.simulatedTax = PayrollCalculator.toRupees(simulatedTax);
+            this.taxDelta = PayrollCalculator.toRupees(simulatedTax - baselineTax);
+            this.baselineProvidentFund = PayrollCalculator.toRupees(baselinePf);
+            this.simulatedProvidentFund = PayrollCalculator.toRupees(simulatedPf);
+            this.providentFundDelta = PayrollCalculator.toRupees(simulatedPf - baselinePf);
+        }
+
+        // Getters
+        public String getDepartment() { return department; }
+        public long getEmployees() { return employees; }
+        public BigDecimal getBaselineGross() { return baselineGross; }
+        public BigDecimal getSimulatedGross() { return simulatedGross; }
+        public BigDecimal getGrossDelta() { return grossDelta; }
+        public BigDecimal getBaselineNet() { return baselineNet; }
+        public BigDecimal getSimulatedNet() { return simulatedNet; }
+        public BigDecimal getNetDelta() { return netDelta; }
+        public BigDecimal getBaselineTax() { return baselineTax; }
+        public BigDecimal getSimulatedTax() { return simulatedTax; }
+        public BigDecimal getTaxDelta() { return taxDelta; }
+        public BigDecimal getBaselineProvidentFund() { return baselineProvidentFund; }
+        public BigDecimal getSimulatedProvidentFund() { return simulatedProvidentFund; }
+        public BigDecimal getProvidentFundDelta() { return providentFundDelta; }
+    }
+
+    // Inner class for a simulation's answer
+    public static class SimulationResult {
+        private final YearMonth month;
+        private final DepartmentTotals total;
+        private final List<DepartmentTotals> departments;
+
+        public SimulationResult(YearMonth month, DepartmentTotals total, List<DepartmentTotals> departments) {
+            this.month = month;
+            this.total = total;
+            this.departments = departments;
+        }
+
+        // Getters
+        public YearMonth getMonth() { return month; }
+        public DepartmentTotals getTotal() { return total; }
+        public List<DepartmentTotals> getDepartments() { return departments; }
+    }
+}
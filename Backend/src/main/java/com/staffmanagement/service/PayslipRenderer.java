@@ -0,0 +1,122 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.SalaryResponse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Renders one payslip as plain text or HTML. Stateless, so payslips can be
+ * rendered on any number of threads.
+ */
+public final class PayslipRenderer {
+
+    private PayslipRenderer() {
+    }
+
+    public static byte[] renderText(SalaryResponse salary) {
+        StringBuilder text = new StringBuilder(1024);
+        text.append("PAYSLIP ").append(salary.getSalaryMonth()).append('\n');
+        text.append("==============================================\n");
+        line(text, "Employee", salary.getEmployeeName() + " (" + salary.getUsername() + ")");
+        line(text, "Department", salary.getDepartment());
+        line(text, "Bank account", orDash(salary.getBankAccountNumber()));
+        text.append("\nEARNINGS\n");
+        line(text, "Basic salary", amount(salary.getBasicSalary()));
+        line(text, "House rent allowance", amount(salary.getHouseRentAllowance()));
+        line(text, "Travel allowance", amount(salary.getTravelAllowance()));
+        line(text, "Medical allowance", amount(salary.getMedicalAllowance()));
+        line(text, "Bonus", amount(salary.getBonus()));
+        line(text, "Overtime (" + hours(salary.getOvertimeHours()) + " h)", amount(salary.getOvertimePay()));
+        line(text, "Gross salary", amount(salary.getGrossSalary()));
+        text.append("\nDEDUCTIONS\n");
+        line(text, "Tax", amount(salary.getTaxDeduction()));
+        line(text, "Provident fund", amount(salary.getProvidentFund()));
+        line(text, "Other deductions", amount(salary.getOtherDeductions()));
+        text.append("\n");
+        line(text, "NET SALARY", amount(salary.getNetSalary()));
+        line(text, "Status", salary.getPaymentStatus()
+                + (salary.getPaymentDate() != null ? " on " + salary.getPaymentDate() : ""));
+        if (salary.getNotes() != null && !salary.getNotes().isBlank()) {
+            line(text, "Notes", salary.getNotes());
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] renderHtml(SalaryResponse salary) {
+        StringBuilder html = new StringBuilder(2048);
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Payslip ")
+                .append(salary.getSalaryMonth()).append(" - ").append(escape(salary.getUsername()))
+                .append("</title></head>\n<body>\n<h1>Payslip ").append(salary.getSalaryMonth()).append("</h1>\n");
+        html.append("<p>").append(escape(salary.getEmployeeName())).append(" (").append(escape(salary.getUsername()))
+                .append(")<br>").append(escape(salary.getDepartment())).append("<br>Bank account: ")
+                .append(escape(orDash(salary.getBankAccountNumber()))).append("</p>\n");
+        html.append("<table>\n<tr><th colspan=\"2\">Earnings</th></tr>\n");
+        row(html, "Basic salary", amount(salary.getBasicSalary()));
+        row(html, "House rent allowance", amount(salary.getHouseRentAllowance()));
+        row(html, "Travel allowance", amount(salary.getTravelAllowance()));
+        row(html, "Medical allowance", amount(salary.getMedicalAllowance()));
+        row(html, "Bonus", amount(salary.getBonus()));
+        row(html, "Overtime (" + hours(salary.getOvertimeHours()) + " h)", amount(salary.getOvertimePay()));
+        row(html, "Gross salary", amount(salary.getGrossSalary()));
+        html.append("<tr><th colspan=\"2\">Deductions</th></tr>\n");
+        row(html, "Tax", amount(salary.getTaxDeduction()));
+        row(html, "Provident fund", amount(salary.getProvidentFund()));
+        row(html, "Other deductions", amount(salary.getOtherDeductions()));
+        row(html, "Net salary", amount(salary.getNetSalary()));
+        html.append("</table>\n<p>Status: ").append(escape(salary.getPaymentStatus()));
+        if (salary.getPaymentDate() != null) {
+            html.append(" on ").append(salary.getPaymentDate());
+        }
+        html.append("</p>\n");
+        if (salary.getNotes() != null && !salary.getNotes().isBlank()) {
+            html.append("<p>").append(escape(salary.getNotes())).append("</p>\n");
+        }
+        html.append("</body></html>\n");
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void line(StringBuilder text, String label, String value) {
+        text.append(label);
+        for (int i = label.length(); i < 28; i++) {
+            text.append(' ');
+        }
+        text.append(value).append('\n');
+    }
+
+    private static void row(StringBuilder html, String label, String value) {
+        html.append("<tr><td>").append(escape(label)).append("</td><td>").append(value).append("</td></tr>\n");
+    }
+
+    private static String amount(BigDecimal value) {
+        return value != null ? value.setScale(2, RoundingMode.HALF_UP).toPlainString() : "0.00";
+    }
+
+    private static String hours(Double value) {
+        return value != null ? String.valueOf(value) : "0.0";
+    }
+
+    private static String orDash(String value) {
+        return value != null && !value.isBlank() ? value : "-";
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
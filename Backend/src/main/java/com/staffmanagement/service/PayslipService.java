@@ -0,0 +1,182 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.SalaryResponse;
+import com.staffmanagement.repository.SalaryJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a month's payslips into a zip archive. Salaries are read from a
+ * forward-only cursor, rendered on a worker pool and written in username
+ * order; at most a small window of rendered payslips is held at any time,
+ * so memory does not depend on the number of employees.
+ */
+@Service
+public class PayslipService {
+
+    public static final String TEXT = "text";
+    public static final String HTML = "html";
+
+    private static final int FETCH_SIZE = 500;
+    // Rendered payslips waiting to be written, per worker
+    private static final int WINDOW_PER_WORKER = 8;
+
+    @Autowired
+    private SalaryJdbcRepository salaryJdbcRepository;
+
+    @Value("${payroll.payslips.workers:0}")
+    private int workers;
+
+    @Value("${payroll.payslips.directory:data/payslips}")
+    private String directory;
+
+    private ExecutorService renderPool;
+    private int window;
+
+    @PostConstruct
+    public void init() {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        renderPool = Executors.newFixedThreadPool(threads);
+        window = threads * WINDOW_PER_WORKER;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    // Checked before the response starts, so a bad request still gets a normal error body
+    public void validate(YearMonth month, String format) {
+        if (month == null) {
+            throw new IllegalArgumentException("Month is required");
+        }
+        if (!TEXT.equals(format) && !HTML.equals(format)) {
+            throw new IllegalArgumentException("Unsupported payslip format: " + format + " (use text or html)");
+        }
+    }
+
+    // Streams the zip to out and returns the number of payslips written; out is not closed
+    public int writeZip(YearMonth month, String format, OutputStream out) throws IOException {
+        validate(month, format);
+        boolean html = HTML.equals(format);
+        String extension = html ? ".html" : ".txt";
+        Deque<Future<RenderedPayslip>> pending = new ArrayDeque<>(window);
+        int[] written = new int[1];
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try {
+            salaryJdbcRepository.streamPayslipsByMonth(month, FETCH_SIZE, salary -> {
+                if (pending.size() >= window) {
+                    writeEntry(zip, pending.poll());
+                    written[0]++;
+                }
+                pending.add(renderPool.submit(() -> new RenderedPayslip(
+                        entryName(month, salary, extension),
+                        html ? PayslipRenderer.renderHtml(salary) : PayslipRenderer.renderText(salary))));
+            });
+            while (!pending.isEmpty()) {
+                writeEntry(zip, pending.poll());
+                written[0]++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (Future<RenderedPayslip> abandoned : pending) {
+                abandoned.cancel(true);
+            }
+        }
+        zip.finish();
+        return written[0];
+    }
+
+    /**
+     * Writes the month's zip under the payslip directory and returns its
+     * path. The archive is written to a temporary file first, so a partial
+     * archive never appears under the final name.
+     */
+    public ArchiveResult writeZipFile(YearMonth month, String format) throws IOException {
+        validate(month, format);
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        Path target = dir.resolve("payslips-" + month + "-" + format + ".zip");
+        Path temp = Files.createTempFile(dir, "payslips-" + month, ".zip.tmp");
+        try {
+            int count;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+                count = writeZip(month, format, out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new ArchiveResult(target.toAbsolutePath().toString(), count);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeEntry(ZipOutputStream zip, Future<RenderedPayslip> future) {
+        try {
+            RenderedPayslip payslip = future.get();
+            zip.putNextEntry(new ZipEntry(payslip.name));
+            zip.write(payslip.body);
+            zip.closeEntry();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing payslips", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not render payslip", e.getCause());
+        }
+    }
+
+    // Usernames become file names inside the archive; the salary id keeps names that sanitize alike (a b, a_b) apart
+    private static String entryName(YearMonth month, SalaryResponse salary, String extension) {
+        return "payslip-" + month + "-" + salary.getUsername().replaceAll("[^A-Za-z0-9._-]", "_")
+                + "-" + salary.getId() + extension;
+    }
+
+    private static final class RenderedPayslip {
+        private final String name;
+        private final byte[] body;
+
+        private RenderedPayslip(String name, byte[] body) {
+            this.name = name;
+            this.body = body;
+        }
+    }
+
+    // Inner class for a payslip archive written to disk
+    public static class ArchiveResult {
+        private final String path;
+        private final int payslips;
+
+        public ArchiveResult(String path, int payslips) {
+            this.path = path;
+            this.payslips = payslips;
+        }
+
+        // Getters
+        public String getPath() { return path; }
+        public int getPayslips() { return payslips; }
+    }
+}
@@ -0,0 +1,222 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.Salary;
+import com.staffmanagement.model.SalaryAggregate;
+import com.staffmanagement.repository.SalaryAggregateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the salary_aggregates table in step with the salaries table so the
+ * payroll dashboard reads a month's totals by key instead of aggregating the
+ * month. Writers report each salary insert or status change inside their own
+ * transaction; rebuildAll() recomputes everything from the raw rows.
+ * Every path keys by the department snapshotted onto the salary when it was
+ * created, so moving a user between departments never shifts older months.
+ */
+@Service
+public class SalaryAggregateService {
+
+    private static final String PAID = "PAID";
+    private static final String PENDING = "PENDING";
+    private static final String NO_DEPARTMENT = "N/A";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE salary_aggregates SET salary_count = salary_count + ?, gross_total = gross_total + ?, " +
+            "net_total = net_total + ?, paid_count = paid_count + ?, paid_net_total = paid_net_total + ?, " +
+            "pending_count = pending_count + ?, pending_net_total = pending_net_total + ? " +
+            "WHERE salary_month = ? AND department = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO salary_aggregates (salary_count, gross_total, net_total, paid_count, paid_net_total, " +
+            "pending_count, pending_net_total, salary_month, department) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO salary_aggregates (salary_month, department, salary_count, gross_total, net_total, " +
+            "paid_count, paid_net_total, pending_count, pending_net_total) " +
+            "SELECT s.salary_month, %s, COUNT(*), COALESCE(SUM(s.gross_salary), 0), COALESCE(SUM(s.net_salary), 0), " +
+            "SUM(CASE WHEN s.payment_status = '" + PAID + "' THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN s.payment_status = '" + PAID + "' THEN s.net_salary ELSE 0 END), 0), " +
+            "SUM(CASE WHEN s.payment_status = '" + PENDING + "' THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN s.payment_status = '" + PENDING + "' THEN s.net_salary ELSE 0 END), 0) " +
+            "FROM salaries s GROUP BY s.salary_month%s";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SalaryAggregateRepository salaryAggregateRepository;
+
+    // The month's totals and one row per department, both straight from the aggregate table
+    public MonthSummary getMonthSummary(YearMonth month) {
+        SalaryAggregate total = null;
+        List<SalaryAggregate> departments = new ArrayList<>();
+        for (SalaryAggregate aggregate : salaryAggregateRepository.findByMonthOrderByDepartment(month.toString())) {
+            if (SalaryAggregate.ALL_DEPARTMENTS.equals(aggregate.getDepartment())) {
+                total = aggregate;
+            } else {
+                departments.add(aggregate);
+            }
+        }
+        if (total == null) {
+            total = new SalaryAggregate();
+            total.setMonth(month.toString());
+            total.setDepartment(SalaryAggregate.ALL_DEPARTMENTS);
+        }
+        return new MonthSummary(month, total, departments);
+    }
+
+    public void recordSalary(Salary salary) {
+        Deltas deltas = new Deltas();
+        deltas.addSalary(salary);
+        apply(deltas);
+    }
+
+    public void recordStatusChange(Salary salary, String oldStatus, String newStatus) {
+        Deltas deltas = new Deltas();
+        deltas.addStatusChange(salary, oldStatus, newStatus);
+        apply(deltas);
+    }
+
+    public void apply(Deltas deltas) {
+        if (deltas.byKey.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(deltas.byKey.keySet());
+        List<Object[]> args = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            args.add(deltas.byKey.get(key).toArgs(key));
+        }
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT_SQL, args);
+
+        // Aggregate rows that do not exist yet are created; a concurrent creator wins and we increment instead
+        for (int i = 0; i < keys.size(); i++) {
+            if (updated[i] != 0) {
+                continue;
+            }
+            try {
+                jdbcTemplate.update(INSERT_SQL, args.get(i));
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(INCREMENT_SQL, args.get(i));
+            }
+        }
+    }
+
+    // Recomputes every aggregate from the salaries table, using each salary's department
+    @Transactional
+    public void rebuildAll() {
+        jdbcTemplate.update("DELETE FROM salary_aggregates");
+        jdbcTemplate.update(String.format(REBUILD_SQL, "'" + SalaryAggregate.ALL_DEPARTMENTS + "'", ""));
+        String department = "COALESCE(NULLIF(s.department, ''), '" + NO_DEPARTMENT + "')";
+        jdbcTemplate.update(String.format(REBUILD_SQL, department, ", " + department));
+    }
+
+    public void deleteAll() {
+        salaryAggregateRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Accumulates salary changes keyed by aggregate row, so a batch of
+     * salaries becomes one update per month and department.
+     */
+    public static class Deltas {
+        private final Map<String, Delta> byKey = new HashMap<>();
+
+        public void addSalary(Salary salary) {
+            Delta delta = new Delta();
+            delta.salaryCount = 1;
+            delta.grossTotal = salary.getGrossSalary();
+            delta.netTotal = salary.getNetSalary();
+            delta.addStatus(salary.getPaymentStatus(), 1, salary.getNetSalary());
+            add(salary.getSalaryMonth(), salary.getDepartment(), delta);
+        }
+
+        public void addStatusChange(Salary salary, String oldStatus, String newStatus) {
+            addStatusChanges(salary.getSalaryMonth(), salary.getDepartment(), 1, salary.getNetSalary(), oldStatus, newStatus);
+        }
+
+        // count salaries with net salaries adding up to netTotal moved from oldStatus to newStatus
+        public void addStatusChanges(YearMonth month, String department, long count, BigDecimal netTotal,
+                                     String oldStatus, String newStatus) {
+            if (oldStatus != null && oldStatus.equals(newStatus)) {
+                return;
+            }
+            Delta delta = new Delta();
+            delta.addStatus(oldStatus, -count, netTotal.negate());
+            delta.addStatus(newStatus, count, netTotal);
+            add(month, department, delta);
+        }
+
+        private void add(YearMonth month, String department, Delta delta) {
+            // An empty department would land on the month total's key
+            String departmentKey = department != null && !department.isEmpty() ? department : NO_DEPARTMENT;
+            byKey.computeIfAbsent(month + "|" + SalaryAggregate.ALL_DEPARTMENTS, key -> new Delta()).merge(delta);
+            byKey.computeIfAbsent(month + "|" + departmentKey, key -> new Delta()).merge(delta);
+        }
+    }
+
+    private static class Delta {
+        long salaryCount;
+        BigDecimal grossTotal = BigDecimal.ZERO;
+        BigDecimal netTotal = BigDecimal.ZERO;
+        long paidCount;
+        BigDecimal paidNetTotal = BigDecimal.ZERO;
+        long pendingCount;
+        BigDecimal pendingNetTotal = BigDecimal.ZERO;
+
+        void addStatus(String status, long count, BigDecimal netTotal) {
+            if (PAID.equals(status)) {
+                paidCount += count;
+                paidNetTotal = paidNetTotal.add(netTotal);
+            } else if (PENDING.equals(status)) {
+                pendingCount += count;
+                pendingNetTotal = pendingNetTotal.add(netTotal);
+            }
+        }
+
+        void merge(Delta other) {
+            salaryCount += other.salaryCount;
+            grossTotal = grossTotal.add(other.grossTotal);
+            netTotal = netTotal.add(other.netTotal);
+            paidCount += other.paidCount;
+            paidNetTotal = paidNetTotal.add(other.paidNetTotal);
+            pendingCount += other.pendingCount;
+            pendingNetTotal = pendingNetTotal.add(other.pendingNetTotal);
+        }
+
+        // Keys are month|department; the month never contains the separator
+        Object[] toArgs(String key) {
+            int split = key.indexOf('|');
+            return new Object[] { salaryCount, grossTotal, netTotal, paidCount, paidNetTotal,
+                    pendingCount, pendingNetTotal, key.substring(0, split), key.substring(split + 1) };
+        }
+    }
+
+    // Inner class for the dashboard view of a month
+    public static class MonthSummary {
+        private final YearMonth month;
+        private final SalaryAggregate total;
+        private final List<SalaryAggregate> departments;
+
+        public MonthSummary(YearMonth month, SalaryAggregate total, List<SalaryAggregate> departments) {
+            this.month = month;
+            this.total = total;
+            this.departments = departments;
+        }
+
+        // Getters
+        public YearMonth getMonth() { return month; }
+        public SalaryAggregate getTotal() { return total; }
+        public List<SalaryAggregate> getDepartments() { return departments; }
+    }
+}
@@ -1,18 +1,28 @@
 package com.staffmanagement.service;
 
+import com.staffmanagement.model.BulkSalaryStatusRequest;
+import com.staffmanagement.model.BulkSalaryStatusResult;
 import com.staffmanagement.model.Salary;
+import com.staffmanagement.model.SalaryChangedEvent;
 import com.staffmanagement.model.SalaryRequest;
 import com.staffmanagement.model.SalaryResponse;
 import com.staffmanagement.model.User;
+import com.staffmanagement.repository.SalaryJdbcRepository;
 import com.staffmanagement.repository.SalaryRepository;
-import com.staffmanagement.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -23,17 +33,39 @@ public class SalaryService {
     private SalaryRepository salaryRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
     
-    // Default salary components (can be configured)
-    private static final BigDecimal HRA_PERCENTAGE = new BigDecimal("0.40"); // 40% of basic
-    private static final BigDecimal TRAVEL_ALLOWANCE = new BigDecimal("1600.00");
-    private static final BigDecimal MEDICAL_ALLOWANCE = new BigDecimal("1250.00");
-    private static final BigDecimal OVERTIME_RATE = new BigDecimal("200.00"); // per hour
-    private static final BigDecimal PF_PERCENTAGE = new BigDecimal("0.12"); // 12% of basic
-    private static final BigDecimal TAX_THRESHOLD = new BigDecimal("500000.00"); // Annual tax threshold
-    private static final BigDecimal TAX_RATE = new BigDecimal("0.05"); // 5% above threshold
+    @Autowired
+    private SalaryStructureService salaryStructureService;
+    
+    @Autowired
+    private SalaryAggregateService salaryAggregateService;
+    
+    @Autowired
+    private SalaryJdbcRepository salaryJdbcRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private LatestSalaryCache latestSalaryCache;
     
+    @Autowired
+    private AttendanceOvertimeService attendanceOvertimeService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${salary.status.bulk.chunk-size:1000}")
+    private int statusChunkSize;
+    
+    // Retries of a bulk status chunk whose rows changed concurrently
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    
+    // Usernames per IN query when resolving users for salary listings
+    private static final int USER_LOOKUP_CHUNK = 1000;
+    
+    @Transactional
     public SalaryResponse calculateAndSaveSalary(SalaryRequest request) {
         // Validate request
         if (request == null) {
@@ -51,52 +83,70 @@ public class SalaryService {
         }
         
         // Get user details
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
         
-        Salary salary = new Salary();
-        salary.setUsername(username);
-        salary.setSalaryMonth(request.getSalaryMonth());
-        
-        // Set basic salary from request or use default based on designation
-        BigDecimal basicSalary = request.getBasicSalary();
-        if (basicSalary == null) {
-            basicSalary = getDefaultBasicSalary(user.getDesignation());
+        if (Boolean.TRUE.equals(request.getOvertimeFromAttendance()) && request.getOvertimeHours() == null) {
+            request.setOvertimeHours(attendanceOvertimeService.getOvertimeHours(username, request.getSalaryMonth()));
         }
-        salary.setBasicSalary(basicSalary);
         
-        // Calculate allowances
-        salary.setHouseRentAllowance(calculateHRA(basicSalary, request.getHouseRentAllowance()));
-        salary.setTravelAllowance(calculateTravelAllowance(request.getTravelAllowance()));
-        salary.setMedicalAllowance(calculateMedicalAllowance(request.getMedicalAllowance()));
+        Salary salary = buildSalary(request, user);
+        Salary savedSalary = salaryRepository.save(salary);
+        salaryAggregateService.recordSalary(savedSalary);
+        eventPublisher.publishEvent(SalaryChangedEvent.of(username, savedSalary.getSalaryMonth()));
+        return convertToResponse(savedSalary, user);
+    }
+    
+    public Salary buildSalary(SalaryRequest request, User user) {
+        return buildSalary(request, user, salaryStructureService.getTemplates());
+    }
+    
+    /**
+     * Calculates a salary from the request, falling back to the salary
+     * structure of the user's designation for the month. Nothing is read or
+     * saved, so payroll runs can call this concurrently with one snapshot of
+     * the templates.
+     */
+    public Salary buildSalary(SalaryRequest request, User user, SalaryTemplates templates) {
+        Salary salary = new Salary();
+        salary.setUsername(user.getUsername());
+        salary.setDepartment(user.getDepartment());
+        salary.setSalaryMonth(request.getSalaryMonth());
         
-        // Set bonus
-        salary.setBonus(request.getBonus() != null ? request.getBonus() : BigDecimal.ZERO);
+        // Basic salary from request or the structure for the designation; any
+        // component left out of the request is calculated from its rules
+        SalaryTemplates.Template template = templates.resolve(user.getDesignation(), request.getSalaryMonth());
+        PayrollCalculator.Line line = new PayrollCalculator.Line()
+                .basicSalary(PayrollCalculator.toPaise(request.getBasicSalary(), template.getBasicSalary()))
+                .houseRentAllowance(PayrollCalculator.toPaise(request.getHouseRentAllowance(), PayrollCalculator.UNSET))
+                .travelAllowance(PayrollCalculator.toPaise(request.getTravelAllowance(), PayrollCalculator.UNSET))
+                .medicalAllowance(PayrollCalculator.toPaise(request.getMedicalAllowance(), PayrollCalculator.UNSET))
+                .bonus(PayrollCalculator.toPaise(request.getBonus(), 0))
+                .overtimeHours(PayrollCalculator.toOvertimeUnits(request.getOvertimeHours()))
+                .overtimeRate(PayrollCalculator.toPaise(request.getOvertimeRate(), PayrollCalculator.UNSET))
+                .providentFund(PayrollCalculator.toPaise(request.getProvidentFund(), PayrollCalculator.UNSET))
+                .taxDeduction(PayrollCalculator.toPaise(request.getTaxDeduction(), PayrollCalculator.UNSET))
+                .otherDeductions(PayrollCalculator.toPaise(request.getOtherDeductions(), 0));
+        PayrollCalculator.calculate(template.getRules(), line);
         
-        // Calculate overtime
+        salary.setBasicSalary(PayrollCalculator.toRupees(line.getBasicSalary()));
+        salary.setHouseRentAllowance(PayrollCalculator.toRupees(line.getHouseRentAllowance()));
+        salary.setTravelAllowance(PayrollCalculator.toRupees(line.getTravelAllowance()));
+        salary.setMedicalAllowance(PayrollCalculator.toRupees(line.getMedicalAllowance()));
+        salary.setBonus(PayrollCalculator.toRupees(line.getBonus()));
         salary.setOvertimeHours(request.getOvertimeHours() != null ? request.getOvertimeHours() : 0.0);
-        salary.setOvertimeRate(request.getOvertimeRate() != null ? request.getOvertimeRate() : OVERTIME_RATE);
-        salary.setOvertimePay(calculateOvertimePay(salary.getOvertimeHours(), salary.getOvertimeRate()));
-        
-        // Calculate gross salary
-        BigDecimal grossSalary = calculateGrossSalary(salary);
-        salary.setGrossSalary(grossSalary);
-        
-        // Calculate deductions
-        salary.setProvidentFund(calculatePF(basicSalary, request.getProvidentFund()));
-        salary.setTaxDeduction(calculateTaxDeduction(grossSalary, request.getTaxDeduction()));
-        salary.setOtherDeductions(request.getOtherDeductions() != null ? request.getOtherDeductions() : BigDecimal.ZERO);
-        
-        // Calculate net salary
-        BigDecimal netSalary = calculateNetSalary(salary);
-        salary.setNetSalary(netSalary);
+        salary.setOvertimeRate(PayrollCalculator.toRupees(line.getOvertimeRate()));
+        salary.setOvertimePay(PayrollCalculator.toRupees(line.getOvertimePay()));
+        salary.setGrossSalary(PayrollCalculator.toRupees(line.getGrossSalary()));
+        salary.setProvidentFund(PayrollCalculator.toRupees(line.getProvidentFund()));
+        salary.setTaxDeduction(PayrollCalculator.toRupees(line.getTaxDeduction()));
+        salary.setOtherDeductions(PayrollCalculator.toRupees(line.getOtherDeductions()));
+        salary.setNetSalary(PayrollCalculator.toRupees(line.getNetSalary()));
         
         // Set bank account and notes
         salary.setBankAccountNumber(user.getBankAccountNumber());
         salary.setNotes(request.getNotes());
-        
-        Salary savedSalary = salaryRepository.save(salary);
-        return convertToResponse(savedSalary, user);
+        return salary;
     }
     
     public SalaryResponse getSalary(Long salaryId) {
@@ -106,7 +156,7 @@ public class SalaryService {
         }
         
         Salary salary = salaryOpt.get();
-        User user = userRepository.findByUsername(salary.getUsername())
+        User user = userCache.findByUsername(salary.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found: " + salary.getUsername()));
         
         return convertToResponse(salary, user);
@@ -119,7 +169,7 @@ public class SalaryService {
         }
         
         Salary salary = salaryOpt.get();
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
         
         return convertToResponse(salary, user);
@@ -132,7 +182,7 @@ public class SalaryService {
         }
         
         List<Salary> salaries = salaryRepository.findByUsernameOrderBySalaryMonthDesc(username);
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
         
         return salaries.stream()
@@ -142,16 +192,10 @@ public class SalaryService {
     
     public List<SalaryResponse> getSalariesByMonth(YearMonth salaryMonth) {
         List<Salary> salaries = salaryRepository.findBySalaryMonthOrderByUsername(salaryMonth);
-        
-        return salaries.stream()
-                .map(salary -> {
-                    User user = userRepository.findByUsername(salary.getUsername())
-                            .orElse(null); // Return null if user not found, handle in convertToResponse
-                    return convertToResponse(salary, user);
-                })
-                .collect(Collectors.toList());
+        return convertToResponses(salaries);
     }
     
+    @Transactional
     public SalaryResponse updateSalaryStatus(Long salaryId, String status) {
         Optional<Salary> salaryOpt = salaryRepository.findById(salaryId);
         if (salaryOpt.isEmpty()) {
@@ -159,6 +203,7 @@ public class SalaryService {
         }
         
         Salary salary = salaryOpt.get();
+        String previousStatus = salary.getPaymentStatus();
         salary.setPaymentStatus(status);
         
         if ("PAID".equals(status)) {
@@ -168,104 +213,120 @@ public class SalaryService {
         salary.setUpdatedAt(java.time.LocalDate.now());
         Salary updatedSalary = salaryRepository.save(salary);
         
-        User user = userRepository.findByUsername(updatedSalary.getUsername())
+        User user = userCache.findByUsername(updatedSalary.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found: " + updatedSalary.getUsername()));
+        salaryAggregateService.recordStatusChange(updatedSalary, previousStatus, status);
+        eventPublisher.publishEvent(SalaryChangedEvent.of(updatedSalary.getUsername(), updatedSalary.getSalaryMonth()));
         return convertToResponse(updatedSalary, user);
     }
     
-    public SalaryResponse getLatestSalary(String username) {
-        // Validate username
-        if (username == null || username.trim().isEmpty()) {
-            throw new IllegalArgumentException("Username cannot be null or empty");
+    /**
+     * Moves every salary of a month (optionally of one department) from one
+     * status to another with set-based UPDATEs of at most statusChunkSize
+     * rows, each chunk in its own transaction with its aggregate delta.
+     * Nothing is loaded into entities; only the counts are returned.
+     */
+    public BulkSalaryStatusResult bulkUpdateStatus(BulkSalaryStatusRequest request) {
+        if (request == null || request.getSalaryMonth() == null) {
+            throw new IllegalArgumentException("Salary month is required");
         }
-        
-        // Use the default method we created
-        Optional<Salary> salaryOpt = salaryRepository.findMostRecentSalaryByUsername(username);
-        if (salaryOpt.isEmpty()) {
-            return null;
+        String fromStatus = request.getFromStatus();
+        String toStatus = request.getToStatus();
+        if (fromStatus == null || fromStatus.isBlank() || toStatus == null || toStatus.isBlank()) {
+            throw new IllegalArgumentException("Both fromStatus and toStatus are required");
+        }
+        if (fromStatus.equals(toStatus)) {
+            throw new IllegalArgumentException("fromStatus and toStatus must differ");
         }
         
-        Salary salary = salaryOpt.get();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
-        return convertToResponse(salary, user);
-    }
-    
-    // Private helper methods for calculations
-    private BigDecimal getDefaultBasicSalary(String designation) {
-        // Default basic salaries based on designation
-        switch (designation != null ? designation.toUpperCase() : "STAFF") {
-            case "HR MANAGER":
-                return new BigDecimal("60000.00");
-            case "SENIOR DEVELOPER":
-                return new BigDecimal("55000.00");
-            case "SOFTWARE DEVELOPER":
-                return new BigDecimal("45000.00");
-            case "ACCOUNTANT":
-                return new BigDecimal("40000.00");
-            case "SALES MANAGER":
-                return new BigDecimal("50000.00");
-            case "MARKETING MANAGER":
-                return new BigDecimal("48000.00");
-            default:
-                return new BigDecimal("35000.00"); // Default for STAFF
+        YearMonth month = request.getSalaryMonth();
+        String department = request.getDepartment() != null && !request.getDepartment().isBlank() ? request.getDepartment() : null;
+        LocalDate today = LocalDate.now();
+        // Same rule as a single status update: marking PAID sets the payment date
+        LocalDate paymentDate = "PAID".equals(toStatus)
+                ? (request.getPaymentDate() != null ? request.getPaymentDate() : today)
+                : request.getPaymentDate();
+        
+        BulkSalaryStatusResult result = new BulkSalaryStatusResult(month, department, fromStatus, toStatus);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long afterId = 0;
+        int attempts = 0;
+        Long chunkEnd;
+        while ((chunkEnd = salaryJdbcRepository.findStatusChunkEnd(month, fromStatus, department, afterId, statusChunkSize)) != null) {
+            long chunkStart = afterId;
+            long chunkLast = chunkEnd;
+            Integer updated = transaction.execute(status -> {
+                List<Object[]> totals = salaryJdbcRepository.sumStatusChunk(month, fromStatus, department, chunkStart, chunkLast);
+                SalaryAggregateService.Deltas deltas = new SalaryAggregateService.Deltas();
+                long expected = 0;
+                for (Object[] total : totals) {
+                    long count = (Long) total[1];
+                    deltas.addStatusChanges(month, (String) total[0], count, (BigDecimal) total[2], fromStatus, toStatus);
+                    expected += count;
+                }
+                int changed = salaryJdbcRepository.updateStatusChunk(month, fromStatus, department, chunkStart, chunkLast,
+                        toStatus, paymentDate, today);
+                if (changed != expected) {
+                    // A row in the chunk changed between the totals and the update; redo the chunk
+                    status.setRollbackOnly();
+                    return null;
+                }
+                salaryAggregateService.apply(deltas);
+                return changed;
+            });
+            if (updated == null) {
+                if (++attempts >= MAX_CHUNK_ATTEMPTS) {
+                    throw new RuntimeException("Salaries after id " + chunkStart + " kept changing during the status update");
+                }
+                continue;
+            }
+            attempts = 0;
+            result.addChunk(updated);
+            eventPublisher.publishEvent(SalaryChangedEvent.ofMonth(month));
+            afterId = chunkEnd;
         }
+        return result;
     }
     
-    private BigDecimal calculateHRA(BigDecimal basicSalary, BigDecimal customHRA) {
-        return customHRA != null ? customHRA : basicSalary.multiply(HRA_PERCENTAGE);
-    }
-    
-    private BigDecimal calculateTravelAllowance(BigDecimal customTA) {
-        return customTA != null ? customTA : TRAVEL_ALLOWANCE;
-    }
-    
-    private BigDecimal calculateMedicalAllowance(BigDecimal customMA) {
-        return customMA != null ? customMA : MEDICAL_ALLOWANCE;
-    }
-    
-    private BigDecimal calculateOvertimePay(Double overtimeHours, BigDecimal overtimeRate) {
-        return overtimeRate.multiply(BigDecimal.valueOf(overtimeHours))
-                          .setScale(2, RoundingMode.HALF_UP);
-    }
-    
-    private BigDecimal calculateGrossSalary(Salary salary) {
-        return salary.getBasicSalary()
-                .add(salary.getHouseRentAllowance())
-                .add(salary.getTravelAllowance())
-                .add(salary.getMedicalAllowance())
-                .add(salary.getBonus())
-                .add(salary.getOvertimePay())
-                .setScale(2, RoundingMode.HALF_UP);
-    }
-    
-    private BigDecimal calculatePF(BigDecimal basicSalary, BigDecimal customPF) {
-        return customPF != null ? customPF : basicSalary.multiply(PF_PERCENTAGE)
-                                                        .setScale(2, RoundingMode.HALF_UP);
+    public SalaryResponse getLatestSalary(String username) {
+        // Validate username
+        if (username == null || username.trim().isEmpty()) {
+            throw new IllegalArgumentException("Username cannot be null or empty");
+        }
+        
+        return latestSalaryCache.get(username, () -> {
+            Optional<Salary> salaryOpt = salaryRepository.findFirstByUsernameOrderBySalaryMonthDesc(username);
+            if (salaryOpt.isEmpty()) {
+                return null;
+            }
+            
+            Salary salary = salaryOpt.get();
+            User user = userCache.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
+            return convertToResponse(salary, user);
+        });
     }
     
-    private BigDecimal calculateTaxDeduction(BigDecimal grossSalary, BigDecimal customTax) {
-        if (customTax != null) {
-            return customTax;
-        }
+    /**
+     * Converts salaries of any number of users, loading the users not cached
+     * with one IN query per USER_LOOKUP_CHUNK usernames instead of one query
+     * per row. Salaries of users that no longer exist are converted with "N/A".
+     */
+    private List<SalaryResponse> convertToResponses(List<Salary> salaries) {
+        List<String> usernames = salaries.stream()
+                .map(Salary::getUsername)
+                .distinct()
+                .collect(Collectors.toList());
         
-        // Simple tax calculation (5% of annual salary above threshold)
-        BigDecimal annualSalary = grossSalary.multiply(new BigDecimal("12"));
-        if (annualSalary.compareTo(TAX_THRESHOLD) > 0) {
-            BigDecimal taxableAmount = annualSalary.subtract(TAX_THRESHOLD);
-            return taxableAmount.multiply(TAX_RATE)
-                              .divide(new BigDecimal("12"), 2, RoundingMode.HALF_UP); // Monthly tax
+        Map<String, User> usersByUsername = new HashMap<>();
+        for (int from = 0; from < usernames.size(); from += USER_LOOKUP_CHUNK) {
+            List<String> chunk = usernames.subList(from, Math.min(from + USER_LOOKUP_CHUNK, usernames.size()));
+            usersByUsername.putAll(userCache.findByUsernames(chunk));
         }
         
-        return BigDecimal.ZERO;
-    }
-    
-    private BigDecimal calculateNetSalary(Salary salary) {
-        return salary.getGrossSalary()
-                .subtract(salary.getTaxDeduction())
-                .subtract(salary.getProvidentFund())
-                .subtract(salary.getOtherDeductions())
-                .setScale(2, RoundingMode.HALF_UP);
+        return salaries.stream()
+                .map(salary -> convertToResponse(salary, usersByUsername.get(salary.getUsername())))
+                .collect(Collectors.toList());
     }
     
     private SalaryResponse convertToResponse(Salary salary, User user) {
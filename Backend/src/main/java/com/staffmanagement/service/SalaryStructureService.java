@@ -0,0 +1,97 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.SalaryStructure;
+import com.staffmanagement.repository.SalaryStructureRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Salary structures per designation, stored in the salary_structures table
+ * and served to the calculation path from a compiled in-memory snapshot.
+ * Saving a structure or calling reload() swaps in a new snapshot; payroll
+ * runs keep the snapshot they started with.
+ */
+@Service
+public class SalaryStructureService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalaryStructureService.class);
+
+    // Effective date of the structures seeded from the former hard-coded defaults
+    private static final LocalDate SEED_EFFECTIVE_FROM = LocalDate.of(2000, 1, 1);
+
+    @Autowired
+    private SalaryStructureRepository salaryStructureRepository;
+
+    private volatile SalaryTemplates templates;
+
+    public SalaryTemplates getTemplates() {
+        SalaryTemplates current = templates;
+        return current != null ? current : reload();
+    }
+
+    public synchronized SalaryTemplates reload() {
+        SalaryTemplates compiled = SalaryTemplates.compile(salaryStructureRepository.findAllByOrderByDesignationAscEffectiveFromAsc());
+        templates = compiled;
+        log.info("Loaded {} salary structure templates", compiled.size());
+        return compiled;
+    }
+
+    public List<SalaryStructure> getAllStructures() {
+        return salaryStructureRepository.findAllByOrderByDesignationAscEffectiveFromAsc();
+    }
+
+    public SalaryStructure saveStructure(SalaryStructure structure) {
+        if (structure == null) {
+            throw new IllegalArgumentException("Salary structure cannot be null");
+        }
+        if (structure.getEffectiveFrom() == null) {
+            throw new IllegalArgumentException("Effective date is required");
+        }
+        structure.setDesignation(SalaryTemplates.normalize(structure.getDesignation()));
+        // Rejects values the calculator cannot represent before anything is stored
+        SalaryTemplates.compile(structure);
+
+        if (salaryStructureRepository.existsByDesignationAndEffectiveFrom(structure.getDesignation(), structure.getEffectiveFrom())) {
+            throw new RuntimeException("A salary structure for " + structure.getDesignation()
+                    + " effective " + structure.getEffectiveFrom() + " already exists");
+        }
+        SalaryStructure saved = salaryStructureRepository.save(structure);
+        reload();
+        return saved;
+    }
+
+    // Stores the designation defaults SalaryService used to hard-code, if no structures exist yet
+    public void seedDefaults() {
+        if (salaryStructureRepository.count() == 0) {
+            seed("HR MANAGER", "60000.00");
+            seed("SENIOR DEVELOPER", "55000.00");
+            seed("SOFTWARE DEVELOPER", "45000.00");
+            seed("ACCOUNTANT", "40000.00");
+            seed("SALES MANAGER", "50000.00");
+            seed("MARKETING MANAGER", "48000.00");
+            seed(SalaryStructure.DEFAULT_DESIGNATION, "35000.00");
+        }
+        reload();
+    }
+
+    private void seed(String designation, String basicSalary) {
+        SalaryStructure structure = new SalaryStructure();
+        structure.setDesignation(designation);
+        structure.setEffectiveFrom(SEED_EFFECTIVE_FROM);
+        structure.setBasicSalary(new BigDecimal(basicSalary));
+        structure.setHraPercentage(new BigDecimal("40.00"));
+        structure.setTravelAllowance(new BigDecimal("1600.00"));
+        structure.setMedicalAllowance(new BigDecimal("1250.00"));
+        structure.setOvertimeRate(new BigDecimal("200.00"));
+        structure.setPfPercentage(new BigDecimal("12.00"));
+        structure.setAnnualTaxThreshold(new BigDecimal("500000.00"));
+        structure.setTaxPercentage(new BigDecimal("5.00"));
+        salaryStructureRepository.save(structure);
+    }
+}
@@ -0,0 +1,145 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.SalaryStructure;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the salary structures compiled into calculator
+ * units, indexed by designation with each designation's versions sorted by
+ * effective date. Resolving a template is a map lookup and a short scan; no
+ * database access and no BigDecimal arithmetic.
+ */
+public final class SalaryTemplates {
+
+    // What SalaryService applied before structures were stored as data
+    static final Template BUILT_IN = new Template(SalaryStructure.DEFAULT_DESIGNATION, LocalDate.MIN,
+            3_500_000, PayrollRules.DEFAULT);
+
+    static final SalaryTemplates EMPTY = new SalaryTemplates(Map.of());
+
+    private final Map<String, Template[]> byDesignation;
+
+    private SalaryTemplates(Map<String, Template[]> byDesignation) {
+        this.byDesignation = byDesignation;
+    }
+
+    /**
+     * Compiles structures into templates. Throws IllegalArgumentException
+     * for values the calculator cannot represent exactly.
+     */
+    public static SalaryTemplates compile(List<SalaryStructure> structures) {
+        Map<String, List<Template>> grouped = new HashMap<>();
+        for (SalaryStructure structure : structures) {
+            Template template = compile(structure);
+            grouped.computeIfAbsent(template.getDesignation(), designation -> new ArrayList<>()).add(template);
+        }
+        Map<String, Template[]> byDesignation = new HashMap<>();
+        for (Map.Entry<String, List<Template>> entry : grouped.entrySet()) {
+            Template[] versions = entry.getValue().toArray(new Template[0]);
+            Arrays.sort(versions, (a, b) -> a.getEffectiveFrom().compareTo(b.getEffectiveFrom()));
+            byDesignation.put(entry.getKey(), versions);
+        }
+        return new SalaryTemplates(Map.copyOf(byDesignation));
+    }
+
+    static Template compile(SalaryStructure structure) {
+        PayrollRules rules = new PayrollRules(
+                basisPoints(structure.getHraPercentage(), "HRA percentage"),
+                paise(structure.getTravelAllowance(), "Travel allowance"),
+                paise(structure.getMedicalAllowance(), "Medical allowance"),
+                paise(structure.getOvertimeRate(), "Overtime rate"),
+                basisPoints(structure.getPfPercentage(), "PF percentage"),
+                paise(structure.getAnnualTaxThreshold(), "Annual tax threshold"),
+                basisPoints(structure.getTaxPercentage(), "Tax percentage"));
+        return new Template(normalize(structure.getDesignation()), structure.getEffectiveFrom(),
+                paise(structure.getBasicSalary(), "Basic salary"), rules);
+    }
+
+    /**
+     * The template for the designation in effect on the first day of the
+     * month, falling back to the STAFF structure and then to the built-in
+     * defaults.
+     */
+    public Template resolve(String designation, YearMonth month) {
+        LocalDate day = (month != null ? month : YearMonth.now()).atDay(1);
+        Template template = latest(byDesignation.get(normalize(designation)), day);
+        if (template == null) {
+            template = latest(byDesignation.get(SalaryStructure.DEFAULT_DESIGNATION), day);
+        }
+        return template != null ? template : BUILT_IN;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Template[] versions : byDesignation.values()) {
+            size += versions.length;
+        }
+        return size;
+    }
+
+    private static Template latest(Template[] versions, LocalDate day) {
+        if (versions == null) {
+            return null;
+        }
+        for (int i = versions.length - 1; i >= 0; i--) {
+            if (!versions[i].getEffectiveFrom().isAfter(day)) {
+                return versions[i];
+            }
+        }
+        return null;
+    }
+
+    static String normalize(String designation) {
+        return designation != null && !designation.isBlank()
+                ? designation.trim().toUpperCase() : SalaryStructure.DEFAULT_DESIGNATION;
+    }
+
+    static long paise(BigDecimal amount, String name) {
+        if (amount == null || amount.signum() < 0) {
+            throw new IllegalArgumentException(name + " must be zero or more");
+        }
+        try {
+            return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(name + " must have at most 2 decimal places");
+        }
+    }
+
+    // 40.00 percent -> 4000 basis points
+    static long basisPoints(BigDecimal percentage, String name) {
+        if (percentage != null && percentage.compareTo(new BigDecimal("100")) > 0) {
+            throw new IllegalArgumentException(name + " cannot exceed 100");
+        }
+        return paise(percentage, name);
+    }
+
+    // Inner class for a compiled salary structure
+    public static final class Template {
+        private final String designation;
+        private final LocalDate effectiveFrom;
+        private final long basicSalary;
+        private final PayrollRules rules;
+
+        Template(String designation, LocalDate effectiveFrom, long basicSalary, PayrollRules rules) {
+            this.designation = designation;
+            this.effectiveFrom = effectiveFrom;
+            this.basicSalary = basicSalary;
+            this.rules = rules;
+        }
+
+        // Getters
+        public String getDesignation() { return designation; }
+        public LocalDate getEffectiveFrom() { return effectiveFrom; }
+        public long getBasicSalary() { return basicSalary; }
+        public PayrollRules getRules() { return rules; }
+    }
+}
@@ -0,0 +1,186 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logged-in sessions, held in memory. Login issues a token of the form
+ * "sessionId.expiresAt.signature" signed with HMAC-SHA256; resolving a token
+ * checks the signature and expiry before a single map lookup, so identity
+ * and role checks never touch the database. Sessions are lost on restart.
+ */
+@Component
+public class SessionStore {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${auth.session.ttl-minutes:480}")
+    private long ttlMinutes;
+
+    @Value("${auth.session.max-sessions:10000}")
+    private int maxSessions;
+
+    // Empty = a random key per start, which invalidates all tokens on restart anyway
+    @Value("${auth.token.secret:}")
+    private String secret;
+
+    private SecretKeySpec key;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            random.nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public Session create(User user) {
+        if (sessions.size() >= maxSessions) {
+            makeRoom();
+        }
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(ttlMinutes));
+        String payload = ENCODER.encodeToString(id) + "." + expiresAt.getEpochSecond();
+        Session session = new Session(payload + "." + sign(payload), user.getUsername(), user.getRole(), user.getName(),
+                expiresAt);
+        sessions.put(session.getToken(), session);
+        return session;
+    }
+
+    // The live session for a token; forged, malformed or expired tokens resolve to nothing
+    public Optional<Session> resolve(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int signatureStart = token.lastIndexOf('.');
+        int expiryStart = signatureStart > 0 ? token.lastIndexOf('.', signatureStart - 1) : -1;
+        if (expiryStart <= 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, signatureStart);
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, mac(payload))
+                    || Long.parseLong(token.substring(expiryStart + 1, signatureStart)) <= Instant.now().getEpochSecond()) {
+                return Optional.empty();
+            }
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return Optional.empty();
+        }
+        if (session.isExpired()) {
+            sessions.remove(token);
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    public boolean invalidate(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    // Logs the user out everywhere, e.g. after a password change
+    public void invalidateUser(String username) {
+        sessions.values().removeIf(session -> session.getUsername().equals(username));
+    }
+
+    public void clear() {
+        sessions.clear();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    // Drops expired sessions, then the sessions closest to expiry until there is room for one more
+    private synchronized void makeRoom() {
+        sessions.values().removeIf(Session::isExpired);
+        while (sessions.size() >= maxSessions) {
+            Session oldest = null;
+            for (Session session : sessions.values()) {
+                if (oldest == null || session.getExpiresAt().isBefore(oldest.getExpiresAt())) {
+                    oldest = session;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            sessions.remove(oldest.getToken());
+        }
+    }
+
+    private String sign(String payload) {
+        return ENCODER.encodeToString(mac(payload));
+    }
+
+    private byte[] mac(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign session token", e);
+        }
+    }
+
+    // Inner class for a logged-in user's session
+    public static class Session {
+        private final String token;
+        private final String username;
+        private final String role;
+        private final String name;
+        private final Instant expiresAt;
+
+        public Session(String token, String username, String role, String name, Instant expiresAt) {
+            this.token = token;
+            this.username = username;
+            this.role = role;
+            this.name = name;
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean isExpired() {
+            return !expiresAt.isAfter(Instant.now());
+        }
+
+        public boolean isAdmin() {
+            return "ADMIN".equals(role);
+        }
+
+        // Getters
+        public String getToken() { return token; }
+        public String getUsername() { return username; }
+        public String getRole() { return role; }
+        public String getName() { return name; }
+        public Instant getExpiresAt() { return expiresAt; }
+    }
+}
@@ -0,0 +1,183 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.User;
+import com.staffmanagement.model.UserChangedEvent;
+import com.staffmanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Username and email availability for the registration form. Bloom filters
+ * of every username and email answer "definitely not taken" from memory;
+ * only a "maybe" is confirmed against the users table. The filters are
+ * loaded once the application is ready (until then every check goes to the
+ * database), take new values before a user is saved, and are rebuilt when
+ * all users change. Values that leave the table stay in the filter and only
+ * cost a confirming query.
+ */
+@Service
+public class UserAvailabilityService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${user.availability-filter.expected-users:100000}")
+    private long expectedUsers;
+
+    private volatile Filters filters;
+
+    // Serializes rebuilds
+    private final Object rebuildLock = new Object();
+
+    // Values recorded while the filters are being rebuilt, replayed into the new ones; guarded by this
+    private List<String[]> recordedDuringRebuild;
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong answeredFromFilter = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    public boolean isUsernameTaken(String username) {
+        checks.incrementAndGet();
+        Filters current = filters;
+        if (current != null && !current.usernames.mightContain(username)) {
+            answeredFromFilter.incrementAndGet();
+            return false;
+        }
+        boolean taken = userRepository.existsByUsername(username);
+        if (!taken && current != null) {
+            falsePositives.incrementAndGet();
+        }
+        return taken;
+    }
+
+    public boolean isEmailTaken(String email) {
+        checks.incrementAndGet();
+        Filters current = filters;
+        if (current != null && !current.emails.mightContain(email)) {
+            answeredFromFilter.incrementAndGet();
+            return false;
+        }
+        boolean taken = userRepository.existsByEmail(email);
+        if (!taken && current != null) {
+            falsePositives.incrementAndGet();
+        }
+        return taken;
+    }
+
+    // Call before saving a new username or email, so no check can miss it once it is committed
+    public synchronized void record(String username, String email) {
+        Filters current = filters;
+        if (current != null) {
+            current.add(username, email);
+        }
+        if (recordedDuringRebuild != null) {
+            recordedDuringRebuild.add(new String[] { username, email });
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isAll()) {
+            rebuild();
+            return;
+        }
+        // Picks up emails changed through profile updates
+        for (User user : userRepository.findByUsernames(new ArrayList<>(event.getUsernames()))) {
+            record(user.getUsername(), user.getEmail());
+        }
+    }
+
+    public synchronized FilterStats getStats() {
+        Filters current = filters;
+        return new FilterStats(current != null, current != null ? current.usernames.getBitCount() : 0,
+                current != null ? current.usernames.getHashCount() : 0,
+                checks.get(), answeredFromFilter.get(), falsePositives.get());
+    }
+
+    private void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                recordedDuringRebuild = new ArrayList<>();
+            }
+            List<String> usernames = userRepository.findAllUsernames();
+            List<String> emails = userRepository.findAllEmails();
+            Filters rebuilt = new Filters(Math.max(expectedUsers, 2L * usernames.size()));
+            for (String username : usernames) {
+                rebuilt.add(username, null);
+            }
+            for (String email : emails) {
+                rebuilt.add(null, email);
+            }
+            synchronized (this) {
+                for (String[] recorded : recordedDuringRebuild) {
+                    rebuilt.add(recorded[0], recorded[1]);
+                }
+                recordedDuringRebuild = null;
+                filters = rebuilt;
+            }
+        }
+    }
+
+    private static final class Filters {
+        final BloomFilter usernames;
+        final BloomFilter emails;
+
+        Filters(long expected) {
+            usernames = new BloomFilter(expected, FALSE_POSITIVE_RATE);
+            emails = new BloomFilter(expected, FALSE_POSITIVE_RATE);
+        }
+
+        void add(String username, String email) {
+            if (username != null) {
+                usernames.add(username);
+            }
+            if (email != null) {
+                emails.add(email);
+            }
+        }
+    }
+
+    // Inner class for filter statistics
+    public static class FilterStats {
+        private final boolean loaded;
+        private final long bitsPerFilter;
+        private final int hashFunctions;
+        private final long checks;
+        private final long answeredFromFilter;
+        private final long falsePositives;
+
+        public FilterStats(boolean loaded, long bitsPerFilter, int hashFunctions, long checks,
+                           long answeredFromFilter, long falsePositives) {
+            this.loaded = loaded;
+            this.bitsPerFilter = bitsPerFilter;
+            this.hashFunctions = hashFunctions;
+            this.checks = checks;
+            this.answeredFromFilter = answeredFromFilter;
+            this.falsePositives = falsePositives;
+        }
+
+        // Getters
+        public boolean isLoaded() { return loaded; }
+        public long getBitsPerFilter() { return bitsPerFilter; }
+        public int getHashFunctions() { return hashFunctions; }
+        public long getChecks() { return checks; }
+        public long getAnsweredFromFilter() { return answeredFromFilter; }
+        public long getFalsePositives() { return falsePositives; }
+    }
+}
@@ -0,0 +1,192 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.User;
+import com.staffmanagement.model.UserChangedEvent;
+import com.staffmanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache of users by username for the salary and profile read
+ * paths. Unknown usernames are cached too. Entries are bounded by
+ * user.cache.max-users (least recently used go first), expire after
+ * user.cache.ttl-seconds and are evicted by UserChangedEvent. Cached users
+ * are shared: callers must not modify them; load the entity from
+ * UserRepository to update it.
+ */
+@Component
+public class UserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${user.cache.max-users:10000}")
+    private int maxUsers;
+
+    // 0 = entries live until evicted
+    @Value("${user.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // Least recently used first; guarded by this
+    private final Map<String, Entry> users = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Bumped by every eviction, so a user loaded across a write is not cached
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public Optional<User> findByUsername(String username) {
+        long observed;
+        synchronized (this) {
+            Entry cached = users.get(username);
+            if (cached != null && !isExpired(cached)) {
+                hits++;
+                return cached.user;
+            }
+            if (cached != null) {
+                users.remove(username);
+                expirations++;
+            }
+            misses++;
+            observed = generation;
+        }
+
+        Optional<User> loaded = userRepository.findByUsername(username);
+
+        synchronized (this) {
+            if (generation == observed) {
+                put(username, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * The users among the usernames that exist, keyed by username. Cached
+     * users are served from memory and the rest are loaded with one IN query.
+     */
+    public Map<String, User> findByUsernames(List<String> usernames) {
+        Map<String, User> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long observed;
+        synchronized (this) {
+            for (String username : usernames) {
+                Entry cached = users.get(username);
+                if (cached != null && !isExpired(cached)) {
+                    hits++;
+                    cached.user.ifPresent(user -> found.put(username, user));
+                } else {
+                    misses++;
+                    missing.add(username);
+                }
+            }
+            observed = generation;
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<String, User> loaded = new HashMap<>();
+        for (User user : userRepository.findByUsernames(missing)) {
+            loaded.put(user.getUsername(), user);
+        }
+        found.putAll(loaded);
+
+        synchronized (this) {
+            if (generation == observed) {
+                for (String username : missing) {
+                    put(username, Optional.ofNullable(loaded.get(username)));
+                }
+            }
+        }
+        return found;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        generation++;
+        if (event.isAll()) {
+            users.clear();
+        } else {
+            users.keySet().removeAll(event.getUsernames());
+        }
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(users.size(), maxUsers, ttlSeconds, hits, misses, evictions, expirations);
+    }
+
+    // Caller holds the lock
+    private void put(String username, Optional<User> user) {
+        users.put(username, new Entry(user, System.nanoTime()));
+        Iterator<String> eldest = users.keySet().iterator();
+        while (users.size() > maxUsers) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlSeconds > 0 && System.nanoTime() - entry.loadedAt > ttlSeconds * 1_000_000_000L;
+    }
+
+    private static final class Entry {
+        final Optional<User> user;
+        final long loadedAt;
+
+        Entry(Optional<User> user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    // Inner class for cache statistics
+    public static class CacheStats {
+        private final int size;
+        private final int maxSize;
+        private final long ttlSeconds;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+
+        public CacheStats(int size, int maxSize, long ttlSeconds, long hits, long misses, long evictions, long expirations) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.ttlSeconds = ttlSeconds;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        // Getters
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getTtlSeconds() { return ttlSeconds; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+    }
+}
@@ -0,0 +1,381 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.User;
+import com.staffmanagement.model.UserChangedEvent;
+import com.staffmanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over the users' name, username, email, department
+ * and designation for substring search. Each user is a document numbered in
+ * insertion order; every trigram of its lower-cased fields maps to the
+ * ascending list of documents containing it. A query intersects the lists
+ * of its trigrams and confirms the candidates with a plain substring test.
+ *
+ * The index is built from the users table on first use. Changed users are
+ * re-indexed from UserChangedEvent: the old document is marked deleted and
+ * a new one appended, which leaves the documents out of username order
+ * until deleted documents make up a quarter of the index and are compacted
+ * away. Meanwhile a search keeps only the first page's worth of matches in
+ * a bounded heap instead of sorting every match.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MIN_COMPACTION = 1000;
+
+    // Separates fields so no trigram spans two of them; queries never contain it
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private static final Comparator<Document> USERNAME_ORDER = Comparator.comparing(document -> document.username);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private boolean built;
+    // Documents are in username order until a changed user is appended
+    private boolean ordered;
+    private final List<Document> documents = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    private final Map<String, Integer> documentByUsername = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * Users whose fields contain the query (case-insensitive), optionally of
+     * one department and/or role, ordered by username. A blank query matches
+     * every user.
+     */
+    public SearchPage search(String query, String department, String role, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        ensureBuilt();
+        String needle = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+
+        int from = (int) Math.min((long) page * size, Integer.MAX_VALUE - MAX_PAGE_SIZE);
+        List<Document> matches = new ArrayList<>();
+        // Out of username order, the from + size smallest usernames seen so far, largest on top
+        PriorityQueue<Document> smallest = new PriorityQueue<>(USERNAME_ORDER.reversed());
+        int total = 0;
+        boolean sorted;
+        lock.readLock().lock();
+        try {
+            sorted = ordered;
+            int[] candidates = candidates(needle);
+            // A three-letter needle is a trigram itself, so its candidates need no substring test
+            boolean verify = !needle.isEmpty() && needle.length() != 3;
+            int count = candidates != null ? candidates.length : documents.size();
+            for (int i = 0; i < count; i++) {
+                int doc = candidates != null ? candidates[i] : i;
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                Document document = documents.get(doc);
+                if ((department == null || department.equals(document.department))
+                        && (role == null || role.equals(document.role))
+                        && (!verify || document.text.contains(needle))) {
+                    // In username order only the requested page needs to be kept
+                    if (sorted) {
+                        if (total >= from && total < from + size) {
+                            matches.add(document);
+                        }
+                    } else {
+                        smallest.add(document);
+                        if (smallest.size() > from + size) {
+                            smallest.poll();
+                        }
+                    }
+                    total++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Document> pageDocuments = matches;
+        if (!sorted) {
+            matches.addAll(smallest);
+            matches.sort(USERNAME_ORDER);
+            pageDocuments = matches.subList(Math.min(from, matches.size()), matches.size());
+        }
+        List<UserSummary> users = new ArrayList<>(pageDocuments.size());
+        for (Document document : pageDocuments) {
+            users.add(document.toSummary());
+        }
+        return new SearchPage(query, page, size, total, users);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Map<String, User> current = new HashMap<>();
+        if (!event.isAll()) {
+            for (User user : userRepository.findByUsernames(new ArrayList<>(event.getUsernames()))) {
+                current.put(user.getUsername(), user);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            if (event.isAll()) {
+                built = false;
+                return;
+            }
+            for (String username : event.getUsernames()) {
+                remove(username);
+                User user = current.get(username);
+                if (user != null) {
+                    add(new Document(user));
+                    ordered = false;
+                }
+            }
+            if (deletedCount >= MIN_COMPACTION && deletedCount * 4 >= documents.size()) {
+                List<Document> live = liveDocuments();
+                clear();
+                live.forEach(this::add);
+                ordered = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureBuilt() {
+        lock.readLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                clear();
+                userRepository.findAll().stream()
+                        .sorted(Comparator.comparing(User::getUsername))
+                        .forEach(user -> add(new Document(user)));
+                built = true;
+                ordered = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Documents holding every trigram of the needle, ascending; null when the needle is too short to narrow down
+    private int[] candidates(String needle) {
+        if (needle.length() < 3) {
+            return null;
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            Postings list = postings.get(trigram(needle, i));
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).documents, lists.get(0).size);
+        int length = result.length;
+        for (int l = 1; l < lists.size() && length > 0; l++) {
+            length = intersect(result, length, lists.get(l));
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Keeps the first length entries of result that are also in the list, in
+     * place; returns the new length. Galloping search skips through a list
+     * much longer than the result in O(length * log(list size)).
+     */
+    private static int intersect(int[] result, int length, Postings list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < length && j < list.size; i++) {
+            int doc = result[i];
+            int step = 1;
+            int high = j;
+            while (high < list.size && list.documents[high] < doc) {
+                j = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(list.documents, j, Math.min(high + 1, list.size), doc);
+            if (found >= 0) {
+                result[kept++] = doc;
+                j = found + 1;
+            } else {
+                j = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    // Caller holds the write lock
+    private void add(Document document) {
+        int doc = documents.size();
+        documents.add(document);
+        documentByUsername.put(document.username, doc);
+        String text = document.text;
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            if (text.charAt(i) == FIELD_SEPARATOR || text.charAt(i + 1) == FIELD_SEPARATOR
+                    || text.charAt(i + 2) == FIELD_SEPARATOR) {
+                continue;
+            }
+            postings.computeIfAbsent(trigram(text, i), k -> new Postings()).add(doc);
+        }
+    }
+
+    // Caller holds the write lock
+    private void remove(String username) {
+        Integer doc = documentByUsername.remove(username);
+        if (doc != null && !deleted.get(doc)) {
+            deleted.set(doc);
+            deletedCount++;
+        }
+    }
+
+    private List<Document> liveDocuments() {
+        List<Document> live = new ArrayList<>(documents.size() - deletedCount);
+        for (int doc = 0; doc < documents.size(); doc++) {
+            if (!deleted.get(doc)) {
+                live.add(documents.get(doc));
+            }
+        }
+        live.sort(USERNAME_ORDER);
+        return live;
+    }
+
+    private void clear() {
+        documents.clear();
+        deleted.clear();
+        deletedCount = 0;
+        documentByUsername.clear();
+        postings.clear();
+    }
+
+    private static long trigram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    // Ascending document numbers; a document is added once per trigram
+    private static final class Postings {
+        int[] documents = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size > 0 && documents[size - 1] == doc) {
+                return;
+            }
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = doc;
+        }
+    }
+
+    // The searchable fields of one user
+    private static final class Document {
+        final String username;
+        final String name;
+        final String email;
+        final String department;
+        final String designation;
+        final String role;
+        final String text;
+
+        Document(User user) {
+            this.username = user.getUsername();
+            this.name = user.getName();
+            this.email = user.getEmail();
+            this.department = user.getDepartment();
+            this.designation = user.getDesignation();
+            this.role = user.getRole();
+            this.text = String.join(String.valueOf(FIELD_SEPARATOR), lower(name), lower(username), lower(email),
+                    lower(department), lower(designation));
+        }
+
+        UserSummary toSummary() {
+            return new UserSummary(username, name, email, department, designation, role);
+        }
+
+        private static String lower(String value) {
+            return value != null ? value.toLowerCase(Locale.ROOT) : "";
+        }
+    }
+
+    // Inner class for a user in search results, without credentials or personal details
+    public static class UserSummary {
+        private final String username;
+        private final String name;
+        private final String email;
+        private final String department;
+        private final String designation;
+        private final String role;
+
+        public UserSummary(String username, String name, String email, String department, String designation, String role) {
+            this.username = username;
+            this.name = name;
+            this.email = email;
+            this.department = department;
+            this.designation = designation;
+            this.role = role;
+        }
+
+        // Getters
+        public String getUsername() { return username; }
+        public String getName() { return name; }
+        public String getEmail() { return email; }
+        public String getDepartment() { return department; }
+        public String getDesignation() { return designation; }
+        public String getRole() { return role; }
+    }
+
+    // Inner class for one page of search results
+    public static class SearchPage {
+        private final String query;
+        private final int page;
+        private final int size;
+        private final int total;
+        private final List<UserSummary> users;
+
+        public SearchPage(String query, int page, int size, int total, List<UserSummary> users) {
+            this.query = query;
+            this.page = page;
+            this.size = size;
+            this.total = total;
+            this.users = users;
+        }
+
+        // Getters
+        public String getQuery() { return query; }
+        public int getPage() { return page; }
+        public int getSize() { return size; }
+        public int getTotal() { return total; }
+        public List<UserSummary> getUsers() { return users; }
+    }
+}
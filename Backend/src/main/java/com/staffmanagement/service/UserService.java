@@ -2,10 +2,14 @@ package com.staffmanagement.service;
 
 import com.staffmanagement.model.ProfileUpdateRequest;
 import com.staffmanagement.model.User;
+import com.staffmanagement.model.UserChangedEvent;
 import com.staffmanagement.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -14,8 +18,17 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserCache userCache;
+    
+    @Autowired
+    private SessionStore sessionStore;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public Optional<User> getUserProfile(String username) {
-        return userRepository.findUserProfileByUsername(username);
+        return userCache.findByUsername(username);
     }
     
     public User updateUserProfile(String username, ProfileUpdateRequest updateRequest) {
@@ -53,7 +66,9 @@ public class UserService {
                 user.setPanNumber(updateRequest.getPanNumber());
             }
             
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            eventPublisher.publishEvent(UserChangedEvent.of(username));
+            return savedUser;
         }
         
         return null;
@@ -66,9 +81,38 @@ public class UserService {
             User user = userOptional.get();
             user.setPassword(newPassword);
             userRepository.save(user);
+            sessionStore.invalidateUser(username);
+            eventPublisher.publishEvent(UserChangedEvent.of(username));
             return true;
         }
         
         return false;
     }
+    
+    // Moves the users to a department and/or role; returns the number of users updated
+    @Transactional
+    public int bulkUpdate(List<String> usernames, String department, String role) {
+        if (usernames == null || usernames.isEmpty()) {
+            throw new IllegalArgumentException("Usernames are required");
+        }
+        if (department == null && role == null) {
+            throw new IllegalArgumentException("Department or role is required");
+        }
+        
+        int updated = 0;
+        if (department != null) {
+            updated = userRepository.updateDepartmentForUsers(usernames, department);
+        }
+        if (role != null) {
+            // Sessions carry the role they were issued with, so users whose role changes sign in again
+            for (User user : userRepository.findByUsernames(usernames)) {
+                if (!role.equals(user.getRole())) {
+                    sessionStore.invalidateUser(user.getUsername());
+                }
+            }
+            updated = userRepository.updateRoleForUsers(usernames, role);
+        }
+        eventPublisher.publishEvent(UserChangedEvent.of(usernames));
+        return updated;
+    }
 }
\ No newline at end of file
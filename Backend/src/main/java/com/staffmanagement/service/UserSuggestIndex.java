@@ -0,0 +1,177 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.UserChangedEvent;
+import com.staffmanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Type-ahead for employee pickers: a sorted array of lower-cased keys (each
+ * username, full name and every later word of the name) pointing at the
+ * users' display fields. A prefix query binary-searches the first key and
+ * walks forward while keys still start with it. The snapshot is immutable
+ * and rebuilt from a three-column query on the first lookup after a user
+ * changes; lookups arriving during the rebuild wait for it instead of
+ * running the query themselves.
+ */
+@Component
+public class UserSuggestIndex {
+
+    public static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile Snapshot snapshot;
+
+    // Bumped by every change, so a snapshot built across a write is not kept; guarded by this
+    private long generation;
+
+    // Held while rebuilding, so one caller runs the query
+    private final Object rebuildLock = new Object();
+
+    // Up to limit users with a username or name word starting with the prefix, in key order
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        String needle = prefix != null ? prefix.trim().toLowerCase(Locale.ROOT) : "";
+        if (needle.isEmpty()) {
+            return List.of();
+        }
+        Snapshot current = current();
+
+        int low = 0;
+        int high = current.keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (current.keys[mid].compareTo(needle) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(limit);
+        for (int i = low; i < current.keys.length && suggestions.size() < limit; i++) {
+            if (!current.keys[i].startsWith(needle)) {
+                break;
+            }
+            Suggestion suggestion = current.suggestions[current.owners[i]];
+            // A user can match through several keys; limit is small, so a linear check is enough
+            if (!suggestions.contains(suggestion)) {
+                suggestions.add(suggestion);
+            }
+        }
+        return suggestions;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        generation++;
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            long observed;
+            synchronized (this) {
+                observed = generation;
+            }
+            Snapshot built = build(userRepository.findSuggestionFields());
+            synchronized (this) {
+                if (generation == observed) {
+                    snapshot = built;
+                }
+            }
+            return built;
+        }
+    }
+
+    private static Snapshot build(List<Object[]> rows) {
+        Suggestion[] suggestions = new Suggestion[rows.size()];
+        List<Key> keys = new ArrayList<>(rows.size() * 3);
+        for (int user = 0; user < rows.size(); user++) {
+            Object[] row = rows.get(user);
+            String username = (String) row[0];
+            String name = (String) row[1];
+            suggestions[user] = new Suggestion(username, name, (String) row[2]);
+            keys.add(new Key(username.toLowerCase(Locale.ROOT), user));
+            if (name != null && !name.isBlank()) {
+                String lower = name.trim().toLowerCase(Locale.ROOT);
+                keys.add(new Key(lower, user));
+                // Later words, so "smi" finds "Alice Smith"
+                for (int space = lower.indexOf(' '); space >= 0; space = lower.indexOf(' ', space + 1)) {
+                    if (space + 1 < lower.length() && lower.charAt(space + 1) != ' ') {
+                        keys.add(new Key(lower.substring(space + 1), user));
+                    }
+                }
+            }
+        }
+        keys.sort(Comparator.comparing((Key key) -> key.text).thenComparingInt(key -> key.owner));
+
+        String[] texts = new String[keys.size()];
+        int[] owners = new int[keys.size()];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = keys.get(i).text;
+            owners[i] = keys.get(i).owner;
+        }
+        return new Snapshot(texts, owners, suggestions);
+    }
+
+    private static final class Key {
+        final String text;
+        final int owner;
+
+        Key(String text, int owner) {
+            this.text = text;
+            this.owner = owner;
+        }
+    }
+
+    // Sorted keys with the index of the suggestion each belongs to
+    private static final class Snapshot {
+        final String[] keys;
+        final int[] owners;
+        final Suggestion[] suggestions;
+
+        Snapshot(String[] keys, int[] owners, Suggestion[] suggestions) {
+            this.keys = keys;
+            this.owners = owners;
+            this.suggestions = suggestions;
+        }
+    }
+
+    // Inner class for a picker entry
+    public static class Suggestion {
+        private final String username;
+        private final String name;
+        private final String department;
+
+        public Suggestion(String username, String name, String department) {
+            this.username = username;
+            this.name = name;
+            this.department = department;
+        }
+
+        // Getters
+        public String getUsername() { return username; }
+        public String getName() { return name; }
+        public String getDepartment() { return department; }
+    }
+}
@@ -0,0 +1,102 @@
+package com.staffmanagement.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Compares the old YEAR()/MONTH() monthly attendance predicate with the
+ * half-open date range on a multi-million-row attendance table with the real
+ * schema's unique (username, attendance_date) index, printing the H2 plan
+ * and average latency of each. Run with -Dbenchmark=true.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AttendanceMonthlyQueryBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int DAYS = 1_500;
+    private static final int ITERATIONS = 2_000;
+
+    private static final String FUNCTION_QUERY =
+            "SELECT * FROM attendance WHERE username = ? AND YEAR(attendance_date) = ? AND MONTH(attendance_date) = ? " +
+            "ORDER BY attendance_date DESC";
+
+    private static final String RANGE_QUERY =
+            "SELECT * FROM attendance WHERE username = ? AND attendance_date >= ? AND attendance_date < ? " +
+            "ORDER BY attendance_date DESC";
+
+    @Test
+    void monthlyQueryFunctionVersusRange() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:attendance_bench", "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE attendance (id BIGINT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(255) NOT NULL, " +
+                        "attendance_date DATE NOT NULL, check_in_time TIME, check_out_time TIME, status VARCHAR(255), " +
+                        "working_hours DOUBLE, notes VARCHAR(500))");
+                statement.execute("INSERT INTO attendance (username, attendance_date, check_in_time, status) " +
+                        "SELECT 'user' || MOD(X, " + USERS + "), DATEADD('DAY', -(X / " + USERS + "), DATE '2026-01-01'), " +
+                        "TIME '09:00:00', 'PRESENT' FROM SYSTEM_RANGE(0, " + ((long) USERS * DAYS - 1) + ")");
+                // Built after the load, which is much faster than maintaining it row by row
+                statement.execute("ALTER TABLE attendance ADD CONSTRAINT uk_attendance_username_date " +
+                        "UNIQUE (username, attendance_date)");
+            }
+            System.out.println("Rows: " + (long) USERS * DAYS);
+
+            report(connection, "YEAR/MONTH", FUNCTION_QUERY, true);
+            report(connection, "date range", RANGE_QUERY, false);
+        }
+    }
+
+    private void report(Connection connection, String label, String sql, boolean functionPredicate) throws Exception {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            bind(explain, 0, functionPredicate);
+            try (ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                System.out.println(label + " plan:\n" + plan.getString(1));
+            }
+        }
+
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            // Warm up, then measure
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                run(query, i, functionPredicate);
+            }
+            long rows = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                rows += run(query, i, functionPredicate);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%s: %.3f ms/query (%d rows total)%n", label, elapsed / 1_000_000.0 / ITERATIONS, rows);
+        }
+    }
+
+    private long run(PreparedStatement query, int iteration, boolean functionPredicate) throws Exception {
+        bind(query, iteration, functionPredicate);
+        long rows = 0;
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private void bind(PreparedStatement statement, int iteration, boolean functionPredicate) throws Exception {
+        LocalDate month = LocalDate.of(2025, 1, 1).minusMonths(iteration % 36);
+        statement.setString(1, "user" + (iteration * 7919 % USERS));
+        if (functionPredicate) {
+            statement.setInt(2, month.getYear());
+            statement.setInt(3, month.getMonthValue());
+        } else {
+            statement.setDate(2, Date.valueOf(month));
+            statement.setDate(3, Date.valueOf(month.plusMonths(1)));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.Attendance;
+import com.staffmanagement.model.AttendanceMonthArchive;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trips of the bit-packed month encoding: every field of every
+ * recorded day must decode exactly as it was written, days without a record
+ * must stay absent, and values the format cannot hold must be refused.
+ */
+class AttendanceMonthCodecTest {
+
+    private static final String USER = "alice.smith";
+    private static final YearMonth MONTH = YearMonth.of(2025, 1);
+
+    @Test
+    void roundTripsEveryFieldAndLeavesAbsentDaysOut() {
+        List<Attendance> rows = new ArrayList<>();
+        // First and last day of the month, the edges of each field's range
+        rows.add(row(1, LocalTime.of(0, 0), LocalTime.of(23, 59), "PRESENT", 40.94, "first day"));
+        rows.add(row(2, LocalTime.of(9, 0), null, "HALF_DAY", 0.0, null));
+        rows.add(row(3, null, null, "ABSENT", null, "sick\nline two\\with backslash\tand tab"));
+        rows.add(row(5, null, null, "LEAVE", null, null));
+        // A row whose status was never set is kept, with a null status
+        rows.add(row(6, LocalTime.of(8, 15), LocalTime.of(17, 45), null, 9.5, null));
+        rows.add(row(31, LocalTime.of(9, 30), LocalTime.of(18, 0), "PRESENT", 8.5, "last day"));
+
+        AttendanceMonthArchive archive = AttendanceMonthCodec.encode(USER, MONTH, rows);
+        List<Attendance> decoded = AttendanceMonthCodec.decode(archive);
+
+        assertEquals(rows.size(), decoded.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertSameRow(rows.get(i), decoded.get(i));
+        }
+        // Days 4 and 7-30 had no record
+        assertNull(AttendanceMonthCodec.decodeDay(archive, MONTH.atDay(4)));
+        assertNull(AttendanceMonthCodec.decodeDay(archive, MONTH.atDay(30)));
+        assertSameRow(rows.get(5), AttendanceMonthCodec.decodeDay(archive, MONTH.atDay(31)));
+        assertNull(AttendanceMonthCodec.decodeDay(archive, MONTH.plusMonths(1).atDay(1)));
+    }
+
+    @Test
+    void roundTripsEmptyAndShortMonths() {
+        AttendanceMonthArchive empty = AttendanceMonthCodec.encode(USER, MONTH, List.of());
+        assertEquals(0, AttendanceMonthCodec.decode(empty).size());
+        assertArrayEquals(new long[] { 0, 0, 0, 0, 0 }, AttendanceMonthCodec.countStatuses(empty.getStatusCodes()));
+
+        YearMonth february = YearMonth.of(2024, 2);
+        List<Attendance> rows = List.of(row(february.atDay(29), LocalTime.of(10, 0), LocalTime.of(12, 0), "PRESENT", 2.0, null));
+        List<Attendance> decoded = AttendanceMonthCodec.decode(AttendanceMonthCodec.encode(USER, february, rows));
+        assertEquals(1, decoded.size());
+        assertSameRow(rows.get(0), decoded.get(0));
+    }
+
+    @Test
+    void countsStatusesAndOvertimeWithoutDecoding() {
+        List<Attendance> rows = List.of(
+                row(1, null, null, "PRESENT", 10.25, null),
+                row(2, null, null, "PRESENT", 8.0, null),
+                row(3, null, null, "ABSENT", null, null),
+                row(4, null, null, "HALF_DAY", 4.0, null),
+                row(5, null, null, "LEAVE", null, null),
+                row(6, null, null, null, 9.0, null));
+        AttendanceMonthArchive archive = AttendanceMonthCodec.encode(USER, MONTH, rows);
+
+        // {total, present, absent, half day, leave}; the null status only counts towards the total
+        assertArrayEquals(new long[] { 6, 2, 1, 1, 1 }, AttendanceMonthCodec.countStatuses(archive.getStatusCodes()));
+        // 2.25 + 1.00 hours beyond an 8 hour day
+        assertEquals(325, AttendanceMonthCodec.overtimeHundredths(archive.getWorkingHours(), 800));
+    }
+
+    @Test
+    void refusesValuesTheFormatCannotHold() {
+        assertNull(AttendanceMonthCodec.encode(USER, MONTH, List.of(row(1, null, null, "PRESENT", 40.95, null))));
+        assertNull(AttendanceMonthCodec.encode(USER, MONTH, List.of(row(1, null, null, "PRESENT", -1.0, null))));
+        assertNull(AttendanceMonthCodec.encode(USER, MONTH, List.of(row(1, null, null, "PRESENT", 7.125, null))));
+        assertNull(AttendanceMonthCodec.encode(USER, MONTH, List.of(row(1, null, null, "REMOTE", null, null))));
+    }
+
+    @Test
+    void skipsMonthsWhoseNotesOverflowTheColumn() {
+        String note = "n".repeat(500);
+        List<Attendance> rows = new ArrayList<>();
+        for (int day = 1; day <= 7; day++) {
+            rows.add(row(day, null, null, "PRESENT", null, note));
+        }
+        AttendanceMonthArchive fits = AttendanceMonthCodec.encode(USER, MONTH, rows);
+        assertNotNull(fits);
+        assertTrue(fits.getNotes().length() <= AttendanceMonthArchive.NOTES_LENGTH);
+        assertEquals(note, AttendanceMonthCodec.decodeDay(fits, MONTH.atDay(7)).getNotes());
+
+        rows.add(row(8, null, null, "PRESENT", null, note));
+        assertNull(AttendanceMonthCodec.encode(USER, MONTH, rows));
+    }
+
+    private static Attendance row(int day, LocalTime checkIn, LocalTime checkOut, String status, Double hours, String notes) {
+        return row(MONTH.atDay(day), checkIn, checkOut, status, hours, notes);
+    }
+
+    private static Attendance row(LocalDate date, LocalTime checkIn, LocalTime checkOut, String status, Double hours,
+                                  String notes) {
+        Attendance row = new Attendance(USER, date, checkIn, status);
+        row.setCheckOutTime(checkOut);
+        row.setWorkingHours(hours);
+        row.setNotes(notes);
+        return row;
+    }
+
+    private static void assertSameRow(Attendance expected, Attendance actual) {
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getAttendanceDate(), actual.getAttendanceDate());
+        assertEquals(expected.getCheckInTime(), actual.getCheckInTime());
+        assertEquals(expected.getCheckOutTime(), actual.getCheckOutTime());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getWorkingHours(), actual.getWorkingHours());
+        assertEquals(expected.getNotes(), actual.getNotes());
+        assertNull(actual.getId());
+    }
+}
@@ -0,0 +1,76 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.SalaryRequest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The BigDecimal salary arithmetic SalaryService used before
+ * PayrollCalculator, kept verbatim as the oracle for parity tests and the
+ * baseline for the allocation benchmark.
+ */
+final class BigDecimalPayrollReference {
+
+    private static final BigDecimal HRA_PERCENTAGE = new BigDecimal("0.40");
+    private static final BigDecimal TRAVEL_ALLOWANCE = new BigDecimal("1600.00");
+    private static final BigDecimal MEDICAL_ALLOWANCE = new BigDecimal("1250.00");
+    private static final BigDecimal OVERTIME_RATE = new BigDecimal("200.00");
+    private static final BigDecimal PF_PERCENTAGE = new BigDecimal("0.12");
+    private static final BigDecimal TAX_THRESHOLD = new BigDecimal("500000.00");
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.05");
+
+    BigDecimal houseRentAllowance;
+    BigDecimal travelAllowance;
+    BigDecimal medicalAllowance;
+    BigDecimal bonus;
+    BigDecimal overtimeRate;
+    BigDecimal overtimePay;
+    BigDecimal grossSalary;
+    BigDecimal providentFund;
+    BigDecimal taxDeduction;
+    BigDecimal otherDeductions;
+    BigDecimal netSalary;
+
+    void calculate(BigDecimal basicSalary, SalaryRequest request) {
+        houseRentAllowance = request.getHouseRentAllowance() != null
+                ? request.getHouseRentAllowance() : basicSalary.multiply(HRA_PERCENTAGE);
+        travelAllowance = request.getTravelAllowance() != null ? request.getTravelAllowance() : TRAVEL_ALLOWANCE;
+        medicalAllowance = request.getMedicalAllowance() != null ? request.getMedicalAllowance() : MEDICAL_ALLOWANCE;
+        bonus = request.getBonus() != null ? request.getBonus() : BigDecimal.ZERO;
+
+        double overtimeHours = request.getOvertimeHours() != null ? request.getOvertimeHours() : 0.0;
+        overtimeRate = request.getOvertimeRate() != null ? request.getOvertimeRate() : OVERTIME_RATE;
+        overtimePay = overtimeRate.multiply(BigDecimal.valueOf(overtimeHours)).setScale(2, RoundingMode.HALF_UP);
+
+        grossSalary = basicSalary
+                .add(houseRentAllowance)
+                .add(travelAllowance)
+                .add(medicalAllowance)
+                .add(bonus)
+                .add(overtimePay)
+                .setScale(2, RoundingMode.HALF_UP);
+
+        providentFund = request.getProvidentFund() != null
+                ? request.getProvidentFund() : basicSalary.multiply(PF_PERCENTAGE).setScale(2, RoundingMode.HALF_UP);
+
+        if (request.getTaxDeduction() != null) {
+            taxDeduction = request.getTaxDeduction();
+        } else {
+            BigDecimal annualSalary = grossSalary.multiply(new BigDecimal("12"));
+            if (annualSalary.compareTo(TAX_THRESHOLD) > 0) {
+                BigDecimal taxableAmount = annualSalary.subtract(TAX_THRESHOLD);
+                taxDeduction = taxableAmount.multiply(TAX_RATE).divide(new BigDecimal("12"), 2, RoundingMode.HALF_UP);
+            } else {
+                taxDeduction = BigDecimal.ZERO;
+            }
+        }
+
+        otherDeductions = request.getOtherDeductions() != null ? request.getOtherDeductions() : BigDecimal.ZERO;
+        netSalary = grossSalary
+                .subtract(taxDeduction)
+                .subtract(providentFund)
+                .subtract(otherDeductions)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+}
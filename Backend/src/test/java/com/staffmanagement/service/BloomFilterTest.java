@@ -0,0 +1,36 @@
+package com.staffmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The filter must never deny an added value, and at its expected size the
+ * false positive rate must stay close to the configured one.
+ */
+class BloomFilterTest {
+
+    private static final int VALUES = 100_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void hasNoFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = new BloomFilter(VALUES, 0.01);
+        for (int i = 0; i < VALUES; i++) {
+            filter.add("user" + i);
+        }
+
+        for (int i = 0; i < VALUES; i++) {
+            assertTrue(filter.mightContain("user" + i), "user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / PROBES;
+        assertTrue(rate < 0.015, "false positive rate " + rate);
+    }
+}
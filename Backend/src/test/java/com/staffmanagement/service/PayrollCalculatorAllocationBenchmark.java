@@ -0,0 +1,73 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.SalaryRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+/**
+ * Compares bytes allocated and time per employee for the BigDecimal salary
+ * arithmetic and the long-paise PayrollCalculator over the same inputs.
+ * Run with -Dbenchmark=true.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PayrollCalculatorAllocationBenchmark {
+
+    private static final int EMPLOYEES = 20_000;
+    private static final int ROUNDS = 50;
+
+    @Test
+    void allocationPerEmployee() {
+        BigDecimal[] basics = new BigDecimal[EMPLOYEES];
+        long[] basicPaise = new long[EMPLOYEES];
+        long[] overtimeUnits = new long[EMPLOYEES];
+        SalaryRequest[] requests = new SalaryRequest[EMPLOYEES];
+        for (int i = 0; i < EMPLOYEES; i++) {
+            basics[i] = BigDecimal.valueOf(2_500_000L + i * 137L, 2);
+            basicPaise[i] = PayrollCalculator.toPaise(basics[i]);
+            requests[i] = new SalaryRequest();
+            requests[i].setOvertimeHours((i % 40) / 4.0);
+            overtimeUnits[i] = PayrollCalculator.toOvertimeUnits(requests[i].getOvertimeHours());
+        }
+
+        BigDecimalPayrollReference reference = new BigDecimalPayrollReference();
+        PayrollCalculator.Line line = new PayrollCalculator.Line();
+
+        Runnable bigDecimal = () -> {
+            for (int i = 0; i < EMPLOYEES; i++) {
+                reference.calculate(basics[i], requests[i]);
+            }
+        };
+        Runnable fixedPoint = () -> {
+            for (int i = 0; i < EMPLOYEES; i++) {
+                line.reset().basicSalary(basicPaise[i]).overtimeHours(overtimeUnits[i]);
+                PayrollCalculator.calculate(PayrollRules.DEFAULT, line);
+            }
+        };
+
+        // Warm up both paths before measuring either
+        for (int round = 0; round < ROUNDS; round++) {
+            bigDecimal.run();
+            fixedPoint.run();
+        }
+        report("BigDecimal", bigDecimal);
+        report("long paise", fixedPoint);
+    }
+
+    private void report(String label, Runnable batch) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            batch.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long employees = (long) EMPLOYEES * ROUNDS;
+        System.out.printf("%s: %.1f bytes/employee, %.1f ns/employee%n",
+                label, (double) allocated / employees, (double) elapsed / employees);
+    }
+}
@@ -0,0 +1,105 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.SalaryRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Property test: for random salary requests, the long-paise calculator must
+ * produce exactly what the BigDecimal implementation produced, component by
+ * component. Inputs use at most two decimals for amounts and four for
+ * overtime hours, which is what the boundary conversion preserves.
+ */
+class PayrollCalculatorParityTest {
+
+    private static final int CASES = 200_000;
+    private static final long SEED = 20_260_101L;
+
+    @Test
+    void matchesBigDecimalImplementation() {
+        Random random = new Random(SEED);
+        BigDecimalPayrollReference reference = new BigDecimalPayrollReference();
+        PayrollCalculator.Line line = new PayrollCalculator.Line();
+
+        for (int i = 0; i < CASES; i++) {
+            BigDecimal basicSalary = amount(random, basicRange(random));
+            SalaryRequest request = new SalaryRequest();
+            request.setHouseRentAllowance(optionalAmount(random, 5_000_000));
+            request.setTravelAllowance(optionalAmount(random, 500_000));
+            request.setMedicalAllowance(optionalAmount(random, 500_000));
+            request.setBonus(optionalAmount(random, 10_000_000));
+            request.setOvertimeHours(random.nextBoolean() ? null : random.nextInt(2_000_000) / 10_000.0);
+            request.setOvertimeRate(optionalAmount(random, 200_000));
+            request.setProvidentFund(optionalAmount(random, 1_000_000));
+            request.setTaxDeduction(optionalAmount(random, 1_000_000));
+            request.setOtherDeductions(optionalAmount(random, 1_000_000));
+
+            reference.calculate(basicSalary, request);
+
+            line.reset()
+                    .basicSalary(PayrollCalculator.toPaise(basicSalary))
+                    .houseRentAllowance(PayrollCalculator.toPaise(request.getHouseRentAllowance(), PayrollCalculator.UNSET))
+                    .travelAllowance(PayrollCalculator.toPaise(request.getTravelAllowance(), PayrollCalculator.UNSET))
+                    .medicalAllowance(PayrollCalculator.toPaise(request.getMedicalAllowance(), PayrollCalculator.UNSET))
+                    .bonus(PayrollCalculator.toPaise(request.getBonus(), 0))
+                    .overtimeHours(PayrollCalculator.toOvertimeUnits(request.getOvertimeHours()))
+                    .overtimeRate(PayrollCalculator.toPaise(request.getOvertimeRate(), PayrollCalculator.UNSET))
+                    .providentFund(PayrollCalculator.toPaise(request.getProvidentFund(), PayrollCalculator.UNSET))
+                    .taxDeduction(PayrollCalculator.toPaise(request.getTaxDeduction(), PayrollCalculator.UNSET))
+                    .otherDeductions(PayrollCalculator.toPaise(request.getOtherDeductions(), 0));
+            PayrollCalculator.calculate(PayrollRules.DEFAULT, line);
+
+            String context = "case " + i + ": basic=" + basicSalary;
+            // The stored HRA is rounded to the column's two decimals
+            assertSame(reference.houseRentAllowance.setScale(2, RoundingMode.HALF_UP), line.getHouseRentAllowance(), "HRA " + context);
+            assertSame(reference.travelAllowance, line.getTravelAllowance(), "travel " + context);
+            assertSame(reference.medicalAllowance, line.getMedicalAllowance(), "medical " + context);
+            assertSame(reference.bonus, line.getBonus(), "bonus " + context);
+            assertSame(reference.overtimeRate, line.getOvertimeRate(), "overtime rate " + context);
+            assertSame(reference.overtimePay, line.getOvertimePay(), "overtime pay " + context);
+            assertSame(reference.grossSalary, line.getGrossSalary(), "gross " + context);
+            assertSame(reference.providentFund, line.getProvidentFund(), "PF " + context);
+            assertSame(reference.taxDeduction, line.getTaxDeduction(), "tax " + context);
+            assertSame(reference.otherDeductions, line.getOtherDeductions(), "other deductions " + context);
+            assertSame(reference.netSalary, line.getNetSalary(), "net " + context);
+        }
+    }
+
+    @Test
+    void roundsHalfUpLikeBigDecimal() {
+        long[] numerators = {0, 1, 4, 5, 6, 9, 10, 14, 15, 16, -1, -4, -5, -6, -15, -16, 12_345_678_901L, -12_345_678_901L};
+        long[] denominators = {1, 2, 3, 10, 12, 10_000, 120_000};
+        for (long numerator : numerators) {
+            for (long denominator : denominators) {
+                long expected = BigDecimal.valueOf(numerator)
+                        .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_UP)
+                        .longValueExact();
+                assertEquals(expected, PayrollCalculator.roundHalfUp(numerator, denominator),
+                        numerator + " / " + denominator);
+            }
+        }
+    }
+
+    private static void assertSame(BigDecimal expected, long actualPaise, String message) {
+        assertEquals(0, expected.compareTo(PayrollCalculator.toRupees(actualPaise)),
+                message + ": expected " + expected + " but was " + PayrollCalculator.toRupees(actualPaise));
+    }
+
+    // Mostly realistic salaries, with a share clustered around the tax threshold
+    private static long basicRange(Random random) {
+        return random.nextInt(4) == 0 ? 3_000_000 : 20_000_000;
+    }
+
+    private static BigDecimal amount(Random random, long maxPaise) {
+        return BigDecimal.valueOf((long) (random.nextDouble() * maxPaise), 2);
+    }
+
+    private static BigDecimal optionalAmount(Random random, long maxPaise) {
+        return random.nextBoolean() ? null : amount(random, maxPaise);
+    }
+}
@@ -0,0 +1,75 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.Salary;
+import com.staffmanagement.model.SalaryRequest;
+import com.staffmanagement.model.SalaryResponse;
+import com.staffmanagement.model.User;
+import com.staffmanagement.repository.SalaryRepository;
+import com.staffmanagement.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the monthly salary listing against per-row user lookups: the number
+ * of statements must not grow with the number of salaries.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class SalaryServiceQueryCountTest {
+
+    private static final int USERS = 200;
+    private static final YearMonth MONTH = YearMonth.of(2001, 1);
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SalaryRepository salaryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void monthlyListingDoesNotQueryUsersPerRow() {
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("querycount.user" + i, "secret", "Query Count " + i, "QA", "STAFF");
+            userRepository.save(user);
+
+            SalaryRequest request = new SalaryRequest();
+            request.setUsername(user.getUsername());
+            request.setSalaryMonth(MONTH);
+            Salary salary = salaryService.buildSalary(request, user);
+            salaryRepository.save(salary);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<SalaryResponse> salaries = salaryService.getSalariesByMonth(MONTH);
+
+        assertEquals(USERS, salaries.size());
+        assertEquals("QA", salaries.get(0).getDepartment());
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 2, "Expected at most 2 statements for the monthly listing, got " + statements);
+    }
+}
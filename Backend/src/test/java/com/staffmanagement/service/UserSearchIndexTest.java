@@ -0,0 +1,150 @@
+package com.staffmanagement.service;
+
+import com.staffmanagement.model.User;
+import com.staffmanagement.model.UserChangedEvent;
+import com.staffmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+
+/**
+ * Checks the trigram candidates, the galloping intersection and compaction
+ * against a brute-force substring scan of the same users, while the index is
+ * in username order, after edits have left it unordered, and after the
+ * deleted documents have been compacted away.
+ */
+class UserSearchIndexTest {
+
+    private static final String[] SYLLABLES = { "an", "ber", "ca", "del", "e", "fi", "gor", "ha", "in", "jo", "ka", "li",
+            "mar", "no", "os", "pe", "ra", "sa", "ti", "vi" };
+    private static final String[] DEPARTMENTS = { "HR", "IT", "Finance", "Sales" };
+    private static final String[] ROLES = { "STAFF", "ADMIN" };
+    private static final int USERS = 3000;
+
+    private final Random random = new Random(42);
+    private final Map<String, User> users = new TreeMap<>();
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS; i++) {
+            User user = randomUser("u" + random.nextInt(1_000_000) + "." + i);
+            users.put(user.getUsername(), user);
+        }
+        UserRepository repository = Mockito.mock(UserRepository.class);
+        Mockito.when(repository.findAll()).thenAnswer(invocation -> new ArrayList<>(users.values()));
+        Mockito.when(repository.findByUsernames(anyList())).thenAnswer(invocation -> {
+            List<User> found = new ArrayList<>();
+            for (Object username : invocation.getArgument(0, List.class)) {
+                if (users.containsKey(username)) {
+                    found.add(users.get(username));
+                }
+            }
+            return found;
+        });
+        ReflectionTestUtils.setField(index, "userRepository", repository);
+    }
+
+    @Test
+    void matchesBruteForceWhileOrderedUnorderedAndAfterCompaction() {
+        assertMatchesBruteForce();
+
+        // A few edits, a removal and a new user leave the documents out of username order
+        List<String> changed = edit(200);
+        String removed = users.keySet().iterator().next();
+        users.remove(removed);
+        changed.add(removed);
+        User added = randomUser("aaa.new");
+        users.put(added.getUsername(), added);
+        changed.add(added.getUsername());
+        index.onUserChanged(UserChangedEvent.of(changed));
+        assertMatchesBruteForce();
+
+        // Enough edits to compact the deleted documents away
+        index.onUserChanged(UserChangedEvent.of(edit(1500)));
+        assertMatchesBruteForce();
+    }
+
+    private void assertMatchesBruteForce() {
+        List<String> queries = new ArrayList<>(List.of("", "a", "ka", "ber", "mar", "xyz", "u1", "@example", "it"));
+        List<User> all = new ArrayList<>(users.values());
+        for (int i = 0; i < 300; i++) {
+            String text = searchable(all.get(random.nextInt(all.size())));
+            int start = random.nextInt(text.length());
+            int end = Math.min(text.length(), start + 1 + random.nextInt(8));
+            queries.add(text.substring(start, end).replace("|", "").trim());
+        }
+
+        for (String query : queries) {
+            String department = random.nextInt(4) == 0 ? DEPARTMENTS[random.nextInt(DEPARTMENTS.length)] : null;
+            String role = random.nextInt(4) == 0 ? ROLES[random.nextInt(ROLES.length)] : null;
+            List<String> expected = new ArrayList<>();
+            for (User user : users.values()) {
+                if ((department == null || department.equals(user.getDepartment()))
+                        && (role == null || role.equals(user.getRole()))
+                        && searchable(user).contains(query)) {
+                    expected.add(user.getUsername());
+                }
+            }
+
+            for (int page : new int[] { 0, 1, 7 }) {
+                UserSearchIndex.SearchPage result = index.search(query, department, role, page, 20);
+                List<String> actual = new ArrayList<>();
+                for (UserSearchIndex.UserSummary user : result.getUsers()) {
+                    actual.add(user.getUsername());
+                }
+                String context = "'" + query + "' department " + department + " role " + role + " page " + page;
+                assertEquals(expected.size(), result.getTotal(), context);
+                assertEquals(expected.subList(Math.min(page * 20, expected.size()), Math.min(page * 20 + 20, expected.size())),
+                        actual, context);
+            }
+        }
+    }
+
+    private List<String> edit(int count) {
+        List<String> usernames = new ArrayList<>(users.keySet());
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String username = usernames.get(random.nextInt(usernames.size()));
+            users.put(username, randomUser(username));
+            changed.add(username);
+        }
+        return changed;
+    }
+
+    private User randomUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName(word() + " " + word());
+        user.setEmail(username + "@example.com");
+        user.setDepartment(DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
+        user.setDesignation(word());
+        user.setRole(ROLES[random.nextInt(ROLES.length)]);
+        return user;
+    }
+
+    private String word() {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, syllables = 1 + random.nextInt(3); i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    // The fields the index searches, lower-cased and kept apart so no match spans two of them
+    private static String searchable(User user) {
+        return String.join("|", user.getName(), user.getUsername(), user.getEmail(), user.getDepartment(),
+                user.getDesignation()).toLowerCase(Locale.ROOT);
+    }
+}